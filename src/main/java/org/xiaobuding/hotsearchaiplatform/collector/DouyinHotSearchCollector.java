@@ -29,7 +29,7 @@ public class DouyinHotSearchCollector {
         LOG.info("Start collecting Douyin hot search");
         
         try {
-            List<HotSearchItem> items = thirdPartyService.fetchDouyinHotSearch();
+            List<HotSearchItem> items = thirdPartyService.fetchHotSearch(PlatformType.DOUYIN, false);
             
             if (items == null || items.isEmpty()) {
                 LOG.warn("Douyin hot search data is empty");
@@ -12,8 +12,18 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @EnableAsync
 public class AsyncConfig {
 
+    private final ThreadingMode threadingMode;
+
+    public AsyncConfig(ThreadingMode threadingMode) {
+        this.threadingMode = threadingMode;
+    }
+
     @Bean(name = "hotSearchExecutor")
     public Executor hotSearchExecutor() {
+        if (threadingMode.isVirtual()) {
+            // 虚拟线程不排队也不回退到调用方（Tomcat 请求线程），上游压力由按主机的并发限制控制
+            return threadingMode.virtualExecutor("hot-search-", 10000);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setThreadNamePrefix("hot-search-");
         // 优化：核心线程数设为 8，用于支撑多源热搜抓取
@@ -26,5 +36,23 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "hotSearchFetchExecutor")
+    public Executor hotSearchFetchExecutor() {
+        if (threadingMode.isVirtual()) {
+            return threadingMode.virtualExecutor("hot-search-fetch-", 10000);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("hot-search-fetch-");
+        // 对冲请求：每个平台最多同时有主源 + 全部备用源在途，不排队直接开线程
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(60);
+        // 线程耗尽时直接拒绝：在调用方线程同步执行会阻塞对冲计时，拒绝由 HedgedSourceFetcher 视为该源启动失败
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
 
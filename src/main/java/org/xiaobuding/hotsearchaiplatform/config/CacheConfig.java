@@ -1,7 +1,20 @@
 package org.xiaobuding.hotsearchaiplatform.config;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 @Configuration
 @EnableCaching
 public class CacheConfig {
+    /**
+     * 清空缓存时用 SCAN 分批查找并删除键，代替默认会阻塞 Redis 的 KEYS
+     */
+    @Bean
+    public RedisCacheManagerBuilderCustomizer scanBatchCacheWriter(RedisConnectionFactory connectionFactory) {
+        return builder -> builder.cacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)));
+    }
 }
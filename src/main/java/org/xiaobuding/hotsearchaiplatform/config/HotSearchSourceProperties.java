@@ -0,0 +1,246 @@
+package org.xiaobuding.hotsearchaiplatform.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.service.platform.HeatParser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热榜数据源配置（hotsearch.sources）
+ * 每个平台声明若干网页数据源：地址、条目选择器、标题过滤、热度解析方式、优先级和超时预算，
+ * 新增数据源或修正选择器只需修改配置
+ */
+@Component
+@ConfigurationProperties(prefix = "hotsearch")
+public class HotSearchSourceProperties {
+
+    private Map<PlatformType, PlatformSources> sources = new EnumMap<>(PlatformType.class);
+
+    public Map<PlatformType, PlatformSources> getSources() {
+        return sources;
+    }
+
+    public void setSources(Map<PlatformType, PlatformSources> sources) {
+        this.sources = sources;
+    }
+
+    /**
+     * 单个平台的数据源集合
+     */
+    public static class PlatformSources {
+        // 日志和AI分析中使用的平台名称
+        private String displayName;
+        // 条目链接模板，{keyword} 替换为 URL 编码后的标题
+        private String searchUrl;
+        // 该平台一次采集的总时间预算，0 表示使用 hotsearch.collect.platform-timeout-ms
+        private long budgetMs;
+        // 平台默认的热度解析方式，数据源可单独覆盖
+        private HeatParser heat = HeatParser.UNIT_SUFFIX;
+        private List<Endpoint> endpoints = new ArrayList<>();
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public void setDisplayName(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getSearchUrl() {
+            return searchUrl;
+        }
+
+        public void setSearchUrl(String searchUrl) {
+            this.searchUrl = searchUrl;
+        }
+
+        public long getBudgetMs() {
+            return budgetMs;
+        }
+
+        public void setBudgetMs(long budgetMs) {
+            this.budgetMs = budgetMs;
+        }
+
+        public HeatParser getHeat() {
+            return heat;
+        }
+
+        public void setHeat(HeatParser heat) {
+            this.heat = heat;
+        }
+
+        public List<Endpoint> getEndpoints() {
+            return endpoints;
+        }
+
+        public void setEndpoints(List<Endpoint> endpoints) {
+            this.endpoints = endpoints;
+        }
+    }
+
+    /**
+     * 单个网页数据源
+     */
+    public static class Endpoint {
+        private String name;
+        private String url;
+        // 数值越小越先请求，其余数据源作为对冲/降级
+        private int priority;
+        private int timeoutMs = 10000;
+        // 需要先访问首页建立会话的数据源：会话名和首页地址
+        private String session;
+        private String sessionHomepage;
+        // 是否带 ETag / Last-Modified 发起条件请求
+        private boolean conditional;
+        // 条目选择器，按优先级排列
+        private List<String> itemSelectors = new ArrayList<>();
+        // 条目内的标题链接，条目本身匹配时直接使用条目
+        private String linkSelector = "a";
+        // 只抽取自身文本包含该标记的元素之后的条目
+        private String startAfter;
+        private int maxItems = 50;
+        private int minTitleLength = 1;
+        // 标题完整匹配该正则时跳过
+        private String excludeTitlePattern;
+        // 标题包含任一关键词时跳过
+        private List<String> excludeTitleKeywords = new ArrayList<>();
+        // 为空时使用平台默认
+        private HeatParser heat;
+        // 链接为绝对地址时直接作为条目URL，否则按 searchUrl 生成
+        private boolean linkAsUrl;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        public int getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(int timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public String getSession() {
+            return session;
+        }
+
+        public void setSession(String session) {
+            this.session = session;
+        }
+
+        public String getSessionHomepage() {
+            return sessionHomepage;
+        }
+
+        public void setSessionHomepage(String sessionHomepage) {
+            this.sessionHomepage = sessionHomepage;
+        }
+
+        public boolean isConditional() {
+            return conditional;
+        }
+
+        public void setConditional(boolean conditional) {
+            this.conditional = conditional;
+        }
+
+        public List<String> getItemSelectors() {
+            return itemSelectors;
+        }
+
+        public void setItemSelectors(List<String> itemSelectors) {
+            this.itemSelectors = itemSelectors;
+        }
+
+        public String getLinkSelector() {
+            return linkSelector;
+        }
+
+        public void setLinkSelector(String linkSelector) {
+            this.linkSelector = linkSelector;
+        }
+
+        public String getStartAfter() {
+            return startAfter;
+        }
+
+        public void setStartAfter(String startAfter) {
+            this.startAfter = startAfter;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        public int getMinTitleLength() {
+            return minTitleLength;
+        }
+
+        public void setMinTitleLength(int minTitleLength) {
+            this.minTitleLength = minTitleLength;
+        }
+
+        public String getExcludeTitlePattern() {
+            return excludeTitlePattern;
+        }
+
+        public void setExcludeTitlePattern(String excludeTitlePattern) {
+            this.excludeTitlePattern = excludeTitlePattern;
+        }
+
+        public List<String> getExcludeTitleKeywords() {
+            return excludeTitleKeywords;
+        }
+
+        public void setExcludeTitleKeywords(List<String> excludeTitleKeywords) {
+            this.excludeTitleKeywords = excludeTitleKeywords;
+        }
+
+        public HeatParser getHeat() {
+            return heat;
+        }
+
+        public void setHeat(HeatParser heat) {
+            this.heat = heat;
+        }
+
+        public boolean isLinkAsUrl() {
+            return linkAsUrl;
+        }
+
+        public void setLinkAsUrl(boolean linkAsUrl) {
+            this.linkAsUrl = linkAsUrl;
+        }
+    }
+}
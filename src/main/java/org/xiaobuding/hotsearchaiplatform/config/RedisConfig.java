@@ -5,15 +5,27 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.util.HotSearchSnapshotCodec;
+
+import java.util.List;
 
 @Configuration
 public class RedisConfig {
+    private static final Logger logger = LoggerFactory.getLogger(RedisConfig.class);
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -38,5 +50,63 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
 
+    /**
+     * 热搜列表快照专用模板，值使用 {@link HotSearchSnapshotCodec} 的列式二进制编码，
+     * 不带类型信息和字段名，比通用 JSON 序列化小得多、解析也更快
+     */
+    @Bean
+    public RedisTemplate<String, List<HotSearchItem>> hotSearchSnapshotTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, List<HotSearchItem>> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new HotSearchSnapshotSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * 订阅近端缓存失效通知等频道
+     * 消息由单线程、有界队列的执行器按到达顺序分发（默认的 SimpleAsyncTaskExecutor 每条消息新开一个线程，
+     * 突发时线程数不受限制，同一频道的消息也可能乱序处理）；
+     * 队列满时丢弃并记录日志：近端缓存最迟在自身 TTL 后过期，缓存代号也会定时重新读取
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            @Value("${hotsearch.redis.listener.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("redis-listener-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) ->
+                logger.warn("Redis 订阅消息队列已满（{} 条），丢弃一条消息", queueCapacity));
+        executor.initialize();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        return container;
+    }
+
+    private static class HotSearchSnapshotSerializer implements RedisSerializer<List<HotSearchItem>> {
+
+        @Override
+        public byte[] serialize(List<HotSearchItem> value) {
+            return value == null ? null : HotSearchSnapshotCodec.encode(value);
+        }
+
+        @Override
+        public List<HotSearchItem> deserialize(byte[] bytes) {
+            if (bytes == null) {
+                return null;
+            }
+            try {
+                return HotSearchSnapshotCodec.decode(bytes);
+            } catch (IllegalArgumentException e) {
+                throw new SerializationException(e.getMessage(), e);
+            }
+        }
+    }
+}
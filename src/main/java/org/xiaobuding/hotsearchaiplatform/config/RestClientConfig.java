@@ -1,27 +0,0 @@
-package org.xiaobuding.hotsearchaiplatform.config;
-
-import java.time.Duration;
-
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
-
-@Configuration
-public class RestClientConfig {
-
-    @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        Duration timeout = Duration.ofSeconds(5);
-        return builder
-                .requestFactory(() -> {
-                    SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-                    factory.setConnectTimeout((int) timeout.toMillis());
-                    factory.setReadTimeout((int) timeout.toMillis());
-                    return factory;
-                })
-                .build();
-    }
-}
-
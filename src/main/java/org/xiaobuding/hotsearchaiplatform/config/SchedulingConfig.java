@@ -0,0 +1,56 @@
+package org.xiaobuding.hotsearchaiplatform.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 定时任务线程池
+ * 默认调度器只有一个线程，一个平台的慢爬取会推迟其他所有定时任务；
+ * 这里为 @Scheduled 任务和缓存预热任务提供独立的有界线程池
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingConfig.class);
+
+    private final ThreadingMode threadingMode;
+    private final int poolSize;
+    private final int awaitTerminationSeconds;
+
+    public SchedulingConfig(ThreadingMode threadingMode,
+                            @Value("${hotsearch.scheduler.pool-size:8}") int poolSize,
+                            @Value("${hotsearch.scheduler.await-termination-seconds:10}") int awaitTerminationSeconds) {
+        this.threadingMode = threadingMode;
+        this.poolSize = poolSize;
+        this.awaitTerminationSeconds = awaitTerminationSeconds;
+    }
+
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        if (threadingMode.isVirtual()) {
+            // 池大小仍限制同时执行的定时任务数，但阻塞在 I/O 上的任务不再占用平台线程
+            scheduler.setThreadFactory(threadingMode.virtualThreadFactory("hot-search-sched-"));
+        } else {
+            scheduler.setThreadNamePrefix("hot-search-sched-");
+        }
+        scheduler.setPoolSize(poolSize);
+        // 取消的任务立即从队列移除，避免重新调度时堆积
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(awaitTerminationSeconds);
+        scheduler.setErrorHandler(t -> logger.error("定时任务执行异常", t));
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler());
+    }
+}
@@ -0,0 +1,54 @@
+package org.xiaobuding.hotsearchaiplatform.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 线程模式开关
+ * spring.threads.virtual.enabled=true 且运行在 Java 21+ 时，爬取、AI 调用、定时任务和出站 HTTP
+ * 都改用虚拟线程（Tomcat 请求线程由 Spring Boot 按同一开关切换）；低于 21 时记录警告并继续使用平台线程池
+ */
+@Component
+public class ThreadingMode {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingMode.class);
+    private static final int VIRTUAL_THREADS_MIN_JAVA = 21;
+
+    private final boolean virtual;
+
+    public ThreadingMode(@Value("${spring.threads.virtual.enabled:false}") boolean requested) {
+        int javaVersion = Runtime.version().feature();
+        this.virtual = requested && javaVersion >= VIRTUAL_THREADS_MIN_JAVA;
+        if (requested && !virtual) {
+            logger.warn("已开启虚拟线程，但当前运行在 Java {}（需要 {}+），继续使用平台线程池", javaVersion, VIRTUAL_THREADS_MIN_JAVA);
+        } else if (virtual) {
+            logger.info("虚拟线程模式已启用（Java {}）", javaVersion);
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 每个任务一个虚拟线程的执行器；关闭时最多等待 terminationTimeoutMs 让在途任务结束
+     */
+    public SimpleAsyncTaskExecutor virtualExecutor(String threadNamePrefix, long terminationTimeoutMs) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(terminationTimeoutMs);
+        return executor;
+    }
+
+    /**
+     * 创建虚拟线程的线程工厂，用于需要自定义执行器的场景（调度器、HttpClient）
+     */
+    public ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+        return new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+    }
+}
@@ -1,10 +1,14 @@
 package org.xiaobuding.hotsearchaiplatform.controller;
+import org.xiaobuding.hotsearchaiplatform.service.task.PendingClassificationQueue;
+import org.xiaobuding.hotsearchaiplatform.util.BoundedLruCache;
 public class ClassificationStats {
     private int totalCount;
     private int pendingCount;
     private int classifiedCount;
     private int classificationPercentage;
     private boolean classifying;
+    private BoundedLruCache.Stats cache;
+    private PendingClassificationQueue.QueueStats queue;
     public int getTotalCount() { return totalCount; }
     public void setTotalCount(int totalCount) { this.totalCount = totalCount; }
     public int getPendingCount() { return pendingCount; }
@@ -15,4 +19,8 @@ public class ClassificationStats {
     public void setClassificationPercentage(int classificationPercentage) { this.classificationPercentage = classificationPercentage; }
     public boolean isClassifying() { return classifying; }
     public void setClassifying(boolean classifying) { this.classifying = classifying; }
+    public BoundedLruCache.Stats getCache() { return cache; }
+    public void setCache(BoundedLruCache.Stats cache) { this.cache = cache; }
+    public PendingClassificationQueue.QueueStats getQueue() { return queue; }
+    public void setQueue(PendingClassificationQueue.QueueStats queue) { this.queue = queue; }
 }
@@ -1,14 +1,18 @@
 package org.xiaobuding.hotsearchaiplatform.controller;
 import org.slf4j.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.xiaobuding.hotsearchaiplatform.model.*;
 import org.xiaobuding.hotsearchaiplatform.repository.HotSearchRepository;
 import org.xiaobuding.hotsearchaiplatform.service.*;
-import org.xiaobuding.hotsearchaiplatform.util.DataDeduplicationUtil;
+import org.xiaobuding.hotsearchaiplatform.service.task.PendingClassificationQueue;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/hot-search")
@@ -19,22 +23,37 @@ public class HotSearchController {
     private final HotSearchCacheService cacheService;
     private final HotSearchRepository hotSearchRepository;
     private final CategoryClassificationService categoryClassificationService;
-    private final ClassificationStatusService classificationStatusService;
+    private final PendingClassificationQueue classificationQueue;
     private final org.xiaobuding.hotsearchaiplatform.service.platform.HonkaiHotSearchService honkaiService;
+    private final HotSearchResponseCache responseCache;
+    private final HotSearchUpdateBroadcaster updateBroadcaster;
+    private final HotSearchRefreshCoordinator refreshCoordinator;
+    private final CacheControl listCacheControl;
+    private final long cacheHardTtlMs;
     public HotSearchController(HotSearchService hotSearchService, HotSearchCacheService cacheService,
                                HotSearchRepository hotSearchRepository,
                                CategoryClassificationService categoryClassificationService,
-                               ClassificationStatusService classificationStatusService,
-                               org.xiaobuding.hotsearchaiplatform.service.platform.HonkaiHotSearchService honkaiService) {
+                               PendingClassificationQueue classificationQueue,
+                               org.xiaobuding.hotsearchaiplatform.service.platform.HonkaiHotSearchService honkaiService,
+                               HotSearchResponseCache responseCache,
+                               HotSearchUpdateBroadcaster updateBroadcaster,
+                               HotSearchRefreshCoordinator refreshCoordinator,
+                               @Value("${hotsearch.response.max-age-seconds:15}") long maxAgeSeconds,
+                               @Value("${hotsearch.cache.hard-ttl-ms:1800000}") long cacheHardTtlMs) {
         this.hotSearchService = hotSearchService;
         this.cacheService = cacheService;
         this.hotSearchRepository = hotSearchRepository;
         this.categoryClassificationService = categoryClassificationService;
-        this.classificationStatusService = classificationStatusService;
+        this.classificationQueue = classificationQueue;
         this.honkaiService = honkaiService;
+        this.responseCache = responseCache;
+        this.updateBroadcaster = updateBroadcaster;
+        this.refreshCoordinator = refreshCoordinator;
+        this.listCacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        this.cacheHardTtlMs = cacheHardTtlMs;
     }
     @GetMapping("/last-update")
-    public ResponseEntity<ApiResponse<LastUpdateInfo>> getLastUpdateTime() {
+    public ResponseEntity<ApiResponse<LastUpdateInfo>> getLastUpdateTime(WebRequest webRequest) {
         try {
             LastUpdateInfo updateInfo = new LastUpdateInfo();
             LocalDateTime globalLastUpdate = hotSearchRepository.findLatestUpdateTime().orElse(LocalDateTime.now());
@@ -47,42 +66,96 @@ public class HotSearchController {
                 }
             }
             updateInfo.setPlatforms(platforms);
-            return ResponseEntity.ok(ApiResponse.success(updateInfo));
+            // 响应体带生成时间戳，只能用弱 ETag
+            String etag = "W/\"" + Integer.toHexString(Objects.hash(globalLastUpdate, platforms)) + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(listCacheControl).build();
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(listCacheControl).body(ApiResponse.success(updateInfo));
         } catch (Exception ex) {
             logger.error("Get last update time failed", ex);
             return ResponseEntity.status(500).body(ApiResponse.serverError("Get update time failed"));
         }
     }
     @GetMapping
-    public ResponseEntity<List<HotSearchItem>> getLatestHotSearches(
+    public ResponseEntity<byte[]> getLatestHotSearches(
             @RequestParam(value = "platform", required = false) String platform,
-            @RequestParam(value = "category", required = false) String category) {
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
         try {
-            logger.info("Get hot search list: platform={}, category={}", platform, category);
-            List<HotSearchItem> items;
+            logger.debug("Get hot search list: platform={}, category={}, limit={}", platform, category, limit);
+            PlatformType platformType = null;
             if (platform != null && !platform.isEmpty()) {
-                PlatformType platformType = PlatformType.valueOf(platform.toUpperCase());
-                items = getHotSearchWithFallback(platformType);
+                try {
+                    platformType = PlatformType.valueOf(platform.toUpperCase());
+                } catch (IllegalArgumentException ex) {
+                    // 未知平台（包括只通过 /honkai 提供的崩坏3公告）不走通用入库路径
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+            String viewName = platformType != null ? platformType.name() : "all";
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            int topN = limit != null && limit > 0 ? limit : 0;
+            HttpHeaders headers = new HttpHeaders();
+            headers.setCacheControl(listCacheControl);
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            // 陈旧判断放在 304 之前：只做条件请求的轮询客户端也要触发后台刷新，否则数据会一直停在软过期之后
+            if (platformType != null) {
+                refreshIfStale(platformType);
             } else {
-                items = getLatestHotSearchWithFallback();
+                refreshAllIfStale();
             }
-            items = filterDegradedData(items);
-            items = repairHotSearchItems(items);
-            items = DataDeduplicationUtil.deduplicateByTitle(items);
-            if (category != null && !category.isEmpty()) {
-                items = items.stream().filter(item -> item.getCategory() != null && item.getCategory().equals(category)).collect(Collectors.toList());
+            HotSearchResponseCache.RenderedView view;
+            if (platformType != null && (topN > 0 || (category != null && !category.isEmpty()))) {
+                // 平台内按分类或前 N 条：从逐条索引按排名读取，只取需要的条目；同一版本只读取一次
+                PlatformType rangePlatform = platformType;
+                view = responseCache.render(viewName, category, topN, cacheService.getPlatformVersion(platformType),
+                        () -> getHotSearchRangeWithFallback(rangePlatform, category, topN));
+            } else {
+                List<HotSearchItem> source = platformType != null ? getHotSearchWithFallback(platformType) : getLatestHotSearchWithFallback();
+                view = responseCache.render(viewName, category, topN, source);
             }
-            // 按rank升序排序（rank 1是第一名，rank小的排前面）
-            items = items.stream().sorted(Comparator.comparing(HotSearchItem::getRank)).collect(Collectors.toList());
-            asyncClassifyItems(items);
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("X-Cache-Control", "max-age=60");
-            return ResponseEntity.ok().headers(headers).body(items);
+            // ETag 由实际要写出的快照字节计算，快照命中时只是一次查表
+            String etag = view.etag(gzip);
+            headers.setETag(etag);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+            }
+            if (!view.pending().isEmpty()) {
+                classificationQueue.submit(view.pending());
+            }
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return ResponseEntity.ok().headers(headers).body(gzip ? view.gzip() : view.json());
         } catch (Exception ex) {
             logger.error("Get hot search data exception", ex);
             return ResponseEntity.status(500).build();
         }
     }
+    /**
+     * 热搜更新推送：连接后先收到 versions 事件（各平台当前数据版本），之后每次榜单或分类变化收到 update 事件
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamHotSearchUpdates(@RequestParam(value = "platform", required = false) String platform) {
+        PlatformType platformType = null;
+        if (platform != null && !platform.isEmpty()) {
+            try {
+                platformType = PlatformType.valueOf(platform.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        SseEmitter emitter = updateBroadcaster.subscribe(platformType);
+        if (emitter == null) {
+            logger.warn("SSE subscriber limit reached, rejecting stream request");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
+    }
     @PostMapping("/refresh")
     public ResponseEntity<List<HotSearchItem>> refreshHotSearches() {
         try {
@@ -111,21 +184,19 @@ public class HotSearchController {
                 items = new ArrayList<>();
             }
             
-            items = filterDegradedData(items);
-            items = repairHotSearchItems(items);
+            items = responseCache.filterDegradedData(items);
+            items = responseCache.repairHotSearchItems(items);
             // 按rank升序排序（rank 1是第一名，rank小的排前面）
             items = items.stream().sorted(Comparator.comparing(HotSearchItem::getRank)).collect(Collectors.toList());
-            asyncClassifyItems(items);
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("X-Cache-Control", "max-age=60");
-            return ResponseEntity.ok().headers(headers).body(items);
+            classificationQueue.submit(items);
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(items);
         } catch (Exception ex) {
             logger.error("Refresh failed completely", ex);
             return ResponseEntity.status(500).build();
         }
     }
     @GetMapping("/classification-stats")
-    public ResponseEntity<ClassificationStats> getClassificationStats() {
+    public ResponseEntity<ClassificationStats> getClassificationStats(WebRequest webRequest) {
         try {
             List<HotSearchItem> items = getLatestHotSearchWithFallback();
             long pendingCount = items.stream().filter(item -> "pending".equals(item.getCategory()) || "evaluating".equals(item.getCategory())).count();
@@ -136,75 +207,64 @@ public class HotSearchController {
             stats.setClassifiedCount((int) successCount);
             stats.setClassificationPercentage(items.size() > 0 ? (int) (successCount * 100 / items.size()) : 0);
             stats.setClassifying(pendingCount > 0);
-            return ResponseEntity.ok(stats);
+            // 缓存和队列计数每次请求都会变化，弱 ETag 只覆盖分类进度
+            String etag = "W/\"" + Integer.toHexString(Objects.hash(items.size(), pendingCount, successCount)) + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(listCacheControl).build();
+            }
+            stats.setCache(categoryClassificationService.cacheStats());
+            stats.setQueue(classificationQueue.stats());
+            return ResponseEntity.ok().eTag(etag).cacheControl(listCacheControl).body(stats);
         } catch (Exception ex) {
             logger.error("Get classification stats failed", ex);
             return ResponseEntity.status(500).build();
         }
     }
-    private List<HotSearchItem> filterDegradedData(List<HotSearchItem> items) {
-        LocalDateTime now = LocalDateTime.now();
-        List<HotSearchItem> filtered = items.stream().filter(item -> {
-            if ("degraded".equals(item.getCategory())) return false;
-            if (item.getCapturedAt() != null) {
-                long minutesAgo = java.time.Duration.between(item.getCapturedAt(), now).toMinutes();
-                if (minutesAgo > 10) return false;
-            }
-            return true;
-        }).collect(Collectors.toList());
-        if (filtered.isEmpty() && !items.isEmpty()) return items;
-        return filtered;
-    }
-    private List<HotSearchItem> repairHotSearchItems(List<HotSearchItem> items) {
-        items.forEach(item -> {
-            if (item.getUrl() == null || item.getUrl().isEmpty()) {
-                item.setUrl(generateUrlForPlatform(item.getTitle(), item.getPlatform()));
-            }
-            if (item.getCategory() == null || item.getCategory().isEmpty()) {
-                item.setCategory("pending");
-            }
-        });
-        return items;
-    }
-    private String generateUrlForPlatform(String title, PlatformType platform) {
-        try {
-            String encodedTitle = java.net.URLEncoder.encode(title, "UTF-8");
-            return switch (platform) {
-                case DOUYIN -> "https://www.douyin.com/search/" + encodedTitle;
-                case BILIBILI -> "https://search.bilibili.com/all?keyword=" + encodedTitle;
-                case WEIBO -> "https://s.weibo.com/weibo?q=" + encodedTitle;
-                case TOUTIAO -> "https://www.toutiao.com/search/?keyword=" + encodedTitle;
-            };
-        } catch (Exception e) { return ""; }
-    }
     private List<HotSearchItem> getLatestHotSearchWithFallback() {
-        // 1. 先查Redis缓存
+        // 1. 先查Redis缓存；已过软过期时间的照常返回，后台从数据库重建
         List<HotSearchItem> cached = cacheService.getAllCached();
         if (cached != null && !cached.isEmpty()) {
             logger.debug("Cache hit for all platforms, returning {} items", cached.size());
+            refreshAllIfStale();
             return cached;
         }
-        // 2. 缓存未命中，查询数据库（只查询5分钟内的数据，避免旧数据）
+        // 2. 缓存未命中，并发请求只有一个执行回源，其余等待其结果
+        return refreshCoordinator.load(HotSearchRefreshCoordinator.ALL_RESOURCE, cacheService::getAllCached,
+                this::loadLatestHotSearches);
+    }
+
+    private List<HotSearchItem> loadLatestHotSearches() {
+        // 1. 查询数据库：各平台的定时刷新持续更新数据库，硬过期时间内的数据都可直接使用
         logger.info("Cache miss for all platforms, querying database");
-        LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-        List<HotSearchItem> dbItems = hotSearchRepository.findByCapturedAtAfter(fiveMinutesAgo);
-        if (dbItems != null && !dbItems.isEmpty()) {
-            logger.info("Found {} items from database (within 5 minutes)", dbItems.size());
-            cacheService.cacheAll(dbItems);
+        List<HotSearchItem> dbItems = loadLatestFromDatabase();
+        if (!dbItems.isEmpty()) {
             return dbItems;
         }
-        // 3. 数据库也没有，触发实时采集
+        // 2. 数据库也没有（冷启动），触发实时采集
         logger.info("No recent data in database, triggering real-time collection");
         List<HotSearchItem> items = hotSearchService.getLatestHotSearches();
         if (items != null && !items.isEmpty()) {
             logger.info("Real-time collection successful, got {} items", items.size());
             return items;
         }
-        // 4. 采集失败，返回空列表
+        // 3. 采集失败，返回空列表
         logger.warn("Failed to get data, returning empty list");
         return new ArrayList<>();
     }
 
+    /**
+     * 用数据库中硬过期时间内的数据重建全平台缓存，不触发采集
+     */
+    private List<HotSearchItem> loadLatestFromDatabase() {
+        List<HotSearchItem> dbItems = hotSearchRepository.findByCapturedAtAfter(LocalDateTime.now().minus(Duration.ofMillis(cacheHardTtlMs)));
+        if (dbItems == null || dbItems.isEmpty()) {
+            return new ArrayList<>();
+        }
+        logger.info("Found {} items from database", dbItems.size());
+        cacheService.cacheAll(dbItems);
+        return dbItems;
+    }
+
     @GetMapping("/honkai")
     public ResponseEntity<List<HotSearchItem>> getHonkaiHotSearches() {
         try {
@@ -213,9 +273,7 @@ public class HotSearchController {
             if (items == null) {
                 items = new ArrayList<>();
             }
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("X-Cache-Control", "max-age=300");
-            return ResponseEntity.ok().headers(headers).body(items);
+            return ResponseEntity.ok().cacheControl(CacheControl.maxAge(300, TimeUnit.SECONDS).cachePublic()).body(items);
         } catch (Exception ex) {
             logger.error("Get Honkai hot search data exception", ex);
             return ResponseEntity.status(500).build();
@@ -223,56 +281,53 @@ public class HotSearchController {
     }
     
     private List<HotSearchItem> getHotSearchWithFallback(PlatformType platformType) {
-        // 1. 先查Redis缓存
+        String resource = HotSearchRefreshCoordinator.platformResource(platformType);
+        // 1. 先查Redis缓存；已过软过期时间的照常返回（调用方在条件请求判断前已安排后台刷新）
         List<HotSearchItem> cached = cacheService.getPlatformCached(platformType);
         if (cached != null && !cached.isEmpty()) {
             logger.debug("Cache hit for {}, returning {} items", platformType, cached.size());
             return cached;
         }
-        // 2. 缓存未命中，直接触发实时采集（确保数据新鲜）
-        logger.info("Cache miss for {}, triggering real-time collection", platformType);
-        List<HotSearchItem> items = hotSearchService.getHotSearchesByPlatform(platformType);
+        // 2. 缓存已硬过期：数据库中保存着该平台最近一次采集的榜单，先返回它，后台采集
+        List<HotSearchItem> dbItems = hotSearchRepository.findByPlatformOrderByRankAsc(platformType);
+        if (!dbItems.isEmpty()) {
+            logger.info("Cache miss for {}, serving {} items from database while refreshing", platformType, dbItems.size());
+            refreshCoordinator.refreshInBackground(resource, () -> hotSearchService.getHotSearchesByPlatform(platformType));
+            return dbItems;
+        }
+        // 3. 数据库也没有（冷启动），只能等待实时采集；并发请求只有一个执行采集，其余等待其结果
+        logger.info("No data for {}, triggering real-time collection", platformType);
+        List<HotSearchItem> items = refreshCoordinator.load(resource,
+                () -> cacheService.getPlatformCached(platformType),
+                () -> hotSearchService.getHotSearchesByPlatform(platformType));
         if (items != null && !items.isEmpty()) {
             logger.info("Real-time collection successful for {}, got {} items", platformType, items.size());
             return items;
         }
-        // 3. 兜底：返回空列表，避免返回旧数据
+        // 4. 兜底：返回空列表
         logger.warn("Failed to get data for {}, returning empty list", platformType);
         return new ArrayList<>();
     }
-    @Async
-    private void asyncClassifyItems(List<HotSearchItem> items) {
-        try {
-            if (!classificationStatusService.tryStartClassification()) return;
-            try {
-                List<HotSearchItem> needClassification = items.stream().filter(item -> "pending".equals(item.getCategory()) || "other".equals(item.getCategory()) || "evaluating".equals(item.getCategory())).collect(Collectors.toList());
-                if (needClassification.isEmpty()) return;
-                Thread.sleep(500);
-                List<HotSearchItem> classifiedItems = categoryClassificationService.classifyItems(needClassification);
-                hotSearchRepository.saveAll(classifiedItems);
-                cacheService.clearAll();
-            } finally {
-                classificationStatusService.endClassification();
-            }
-        } catch (Exception e) {
-            logger.error("Async classification failed", e);
+
+    private List<HotSearchItem> getHotSearchRangeWithFallback(PlatformType platformType, String category, int limit) {
+        List<HotSearchItem> items = cacheService.getPlatformRange(platformType, category, limit);
+        if (items != null) {
+            return items;
         }
+        // 索引不存在（未缓存或已硬过期）：按整表路径取数据，过滤和截取在生成响应时完成
+        return getHotSearchWithFallback(platformType);
     }
-    public static class ClassificationStats {
-        private int totalCount;
-        private int pendingCount;
-        private int classifiedCount;
-        private int classificationPercentage;
-        private boolean classifying;
-        public int getTotalCount() { return totalCount; }
-        public void setTotalCount(int totalCount) { this.totalCount = totalCount; }
-        public int getPendingCount() { return pendingCount; }
-        public void setPendingCount(int pendingCount) { this.pendingCount = pendingCount; }
-        public int getClassifiedCount() { return classifiedCount; }
-        public void setClassifiedCount(int classifiedCount) { this.classifiedCount = classifiedCount; }
-        public int getClassificationPercentage() { return classificationPercentage; }
-        public void setClassificationPercentage(int classificationPercentage) { this.classificationPercentage = classificationPercentage; }
-        public boolean isClassifying() { return classifying; }
-        public void setClassifying(boolean classifying) { this.classifying = classifying; }
+
+    private void refreshIfStale(PlatformType platformType) {
+        if (cacheService.isPlatformStale(platformType)) {
+            refreshCoordinator.refreshInBackground(HotSearchRefreshCoordinator.platformResource(platformType),
+                    () -> hotSearchService.getHotSearchesByPlatform(platformType));
+        }
+    }
+
+    private void refreshAllIfStale() {
+        if (cacheService.isAllStale()) {
+            refreshCoordinator.refreshInBackground(HotSearchRefreshCoordinator.ALL_RESOURCE, this::loadLatestFromDatabase);
+        }
     }
-}
\ No newline at end of file
+}
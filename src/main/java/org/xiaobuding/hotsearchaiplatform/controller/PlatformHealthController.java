@@ -8,15 +8,26 @@ import org.springframework.web.bind.annotation.RestController;
 import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
 import org.xiaobuding.hotsearchaiplatform.service.PlatformHealthService;
 import org.xiaobuding.hotsearchaiplatform.service.PlatformHealthService.PlatformHealth;
+import org.xiaobuding.hotsearchaiplatform.service.platform.HotSearchSourceExecutor;
+import org.xiaobuding.hotsearchaiplatform.service.platform.HotSearchSourceRegistry;
+import org.xiaobuding.hotsearchaiplatform.service.platform.SourceHealthTracker.SourceHealth;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/health/platform")
 public class PlatformHealthController {
 
     private final PlatformHealthService platformHealthService;
+    private final HotSearchSourceRegistry sourceRegistry;
+    private final HotSearchSourceExecutor sourceExecutor;
 
-    public PlatformHealthController(PlatformHealthService platformHealthService) {
+    public PlatformHealthController(PlatformHealthService platformHealthService,
+                                    HotSearchSourceRegistry sourceRegistry,
+                                    HotSearchSourceExecutor sourceExecutor) {
         this.platformHealthService = platformHealthService;
+        this.sourceRegistry = sourceRegistry;
+        this.sourceExecutor = sourceExecutor;
     }
 
     @GetMapping("/{platform}")
@@ -28,5 +39,20 @@ public class PlatformHealthController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
 
+    /**
+     * 平台各数据源的熔断状态、成功率和平均耗时，按下次爬取的尝试顺序排列
+     */
+    @GetMapping("/{platform}/sources")
+    public ResponseEntity<List<SourceHealth>> getSourceHealth(@PathVariable("platform") String platform) {
+        try {
+            PlatformType platformType = PlatformType.valueOf(platform.toUpperCase());
+            if (!sourceRegistry.contains(platformType)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(sourceExecutor.sourceHealth(platformType));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.xiaobuding.hotsearchaiplatform.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.xiaobuding.hotsearchaiplatform.service.task.ScheduledJobRunner;
+import org.xiaobuding.hotsearchaiplatform.service.task.ScheduledJobRunner.JobStats;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/health/scheduler")
+public class SchedulerHealthController {
+
+    private final ScheduledJobRunner jobRunner;
+
+    public SchedulerHealthController(ScheduledJobRunner jobRunner) {
+        this.jobRunner = jobRunner;
+    }
+
+    /**
+     * 周期任务的执行次数、失败次数、调度延迟和耗时
+     */
+    @GetMapping
+    public ResponseEntity<List<JobStats>> getJobStats() {
+        return ResponseEntity.ok(jobRunner.stats());
+    }
+}
@@ -0,0 +1,18 @@
+package org.xiaobuding.hotsearchaiplatform.exception;
+
+/**
+ * 上游热榜返回 304 Not Modified 时抛出的异常
+ * 表示内容与上次采集一致，调用方可以跳过解析、分类、入库和缓存写入
+ */
+public class UpstreamNotModifiedException extends RuntimeException {
+    private final String url;
+
+    public UpstreamNotModifiedException(String message, String url) {
+        super(message);
+        this.url = url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+}
@@ -61,6 +61,19 @@ public class HotSearchItem implements Serializable {
         this.capturedAt = capturedAt;
     }
 
+    /**
+     * 复制全部字段（字段都是不可变类型），用于修改共享缓存中的条目之前
+     */
+    public HotSearchItem copy() {
+        HotSearchItem copy = new HotSearchItem(title, platform, heat, rank, capturedAt);
+        copy.id = id;
+        copy.category = category;
+        copy.actualSource = actualSource;
+        copy.degradedReason = degradedReason;
+        copy.url = url;
+        return copy;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,48 @@
+package org.xiaobuding.hotsearchaiplatform.model;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+/**
+ * 推送给 SSE 客户端的平台榜单增量
+ * version 为推送时该平台缓存的数据版本，客户端发现版本不连续时应重新拉取完整列表
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class HotSearchUpdate {
+    private PlatformType platform;
+    private long version;
+    private long publishedAt;
+    private List<HotSearchItem> added;
+    private List<String> removed;
+    private List<Change> changed;
+    public PlatformType getPlatform() { return platform; }
+    public void setPlatform(PlatformType platform) { this.platform = platform; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public long getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(long publishedAt) { this.publishedAt = publishedAt; }
+    public List<HotSearchItem> getAdded() { return added; }
+    public void setAdded(List<HotSearchItem> added) { this.added = added; }
+    public List<String> getRemoved() { return removed; }
+    public void setRemoved(List<String> removed) { this.removed = removed; }
+    public List<Change> getChanged() { return changed; }
+    public void setChanged(List<Change> changed) { this.changed = changed; }
+    /**
+     * 已有条目的变化，只填写发生变化的字段
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Change {
+        private String title;
+        private Integer rank;
+        private Long heat;
+        private String category;
+        public Change() {}
+        public Change(String title) { this.title = title; }
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+        public Integer getRank() { return rank; }
+        public void setRank(Integer rank) { this.rank = rank; }
+        public Long getHeat() { return heat; }
+        public void setHeat(Long heat) { this.heat = heat; }
+        public String getCategory() { return category; }
+        public void setCategory(String category) { this.category = category; }
+    }
+}
@@ -18,6 +18,17 @@ public interface HotSearchRepository extends JpaRepository<HotSearchItem, Long>
     
     @Modifying
     long deleteByCapturedAtBefore(LocalDateTime capturedAt);
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE HotSearchItem h SET h.capturedAt = ?2 WHERE h.platform = ?1")
+    int touchCapturedAtByPlatform(PlatformType platform, LocalDateTime capturedAt);
+    @Modifying
+    @Query("UPDATE HotSearchItem h SET h.rank = ?2, h.heat = ?3, h.url = ?4 WHERE h.id = ?1")
+    int updateListing(Long id, Integer rank, Long heat, String url);
+    // 只改写仍未分类的行：期间被新一轮采集删除或已分类的行不受影响，返回 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE HotSearchItem h SET h.category = ?2 WHERE h.id = ?1 AND (h.category IS NULL OR h.category IN ('pending', 'other', 'evaluating'))")
+    int updateCategoryIfUnclassified(Long id, String category);
     @Query("SELECT MAX(h.capturedAt) FROM HotSearchItem h")
     Optional<LocalDateTime> findLatestUpdateTime();
     @Query("SELECT MAX(h.capturedAt) FROM HotSearchItem h WHERE h.platform = ?1")
@@ -8,11 +8,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.xiaobuding.hotsearchaiplatform.config.ThreadingMode;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AICoreService {
@@ -27,23 +31,63 @@ public class AICoreService {
     
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    // 同时在途的模型请求上限，虚拟线程模式下大量问答请求也不会压垮上游
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final Duration requestTimeout;
     
-    public AICoreService() {
-        this.httpClient = HttpClient.newBuilder().build();
+    public AICoreService(ThreadingMode threadingMode,
+                         @Value("${dashscope.api.max-concurrent-requests:16}") int maxConcurrentRequests,
+                         @Value("${dashscope.api.acquire-timeout-ms:5000}") long acquireTimeoutMs,
+                         @Value("${dashscope.api.connect-timeout-ms:5000}") long connectTimeoutMs,
+                         @Value("${dashscope.api.request-timeout-ms:60000}") long requestTimeoutMs) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs));
+        if (threadingMode.isVirtual()) {
+            builder.executor(threadingMode.virtualExecutor("dashscope-http-", 0));
+        }
+        this.httpClient = builder.build();
         this.objectMapper = new ObjectMapper();
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+    
+    /**
+     * 是否配置了 API Key；未配置时所有调用都返回兜底回复
+     */
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty();
     }
     
     public String callDashScopeAPI(String prompt) {
-        return callDashScopeAPI(prompt, null);
+        return callDashScopeAPI(prompt, null, requestTimeout);
     }
 
     public String callDashScopeAPI(String prompt, String searchQuery) {
+        return callDashScopeAPI(prompt, searchQuery, requestTimeout);
+    }
+
+    /**
+     * 指定本次请求的超时，供后台批量任务使用更短的等待时间
+     */
+    public String callDashScopeAPI(String prompt, Duration timeout) {
+        return callDashScopeAPI(prompt, null, timeout);
+    }
+
+    private String callDashScopeAPI(String prompt, String searchQuery, Duration timeout) {
         if (apiKey == null || apiKey.isEmpty()) {
             logger.warn("Qianwen API key not configured, returning mock response");
             return generateMockResponse(prompt);
         }
         
+        boolean acquired = false;
         try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                logger.warn("Qianwen API concurrency limit reached, returning mock response");
+                return generateMockResponse(prompt);
+            }
             ObjectNode requestBody = objectMapper.createObjectNode();
             requestBody.put("model", model);
             
@@ -67,6 +111,7 @@ public class AICoreService {
             
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(baseUrl))
+                    .timeout(timeout)
                     .header("Authorization", "Bearer " + apiKey)
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requestBody)))
@@ -81,9 +126,17 @@ public class AICoreService {
                 logger.error("Qianwen API error: {}", response.statusCode());
                 return generateMockResponse(prompt);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Qianwen API call interrupted");
+            return generateMockResponse(prompt);
         } catch (Exception e) {
             logger.error("Failed to call Qianwen API", e);
             return generateMockResponse(prompt);
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
         }
     }
     
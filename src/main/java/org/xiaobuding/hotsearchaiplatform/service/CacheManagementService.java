@@ -1,24 +1,44 @@
 package org.xiaobuding.hotsearchaiplatform.service;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
 
+import java.util.List;
+
+/**
+ * 缓存清理
+ * 只清理本应用自己的缓存：热搜缓存切换命名空间（旧键后台回收），@Cacheable 缓存按名称分批清除；
+ * 不使用 FLUSHDB，会话等同库的其他数据不受影响
+ */
 @Service
 public class CacheManagementService {
     private static final Logger logger = LoggerFactory.getLogger(CacheManagementService.class);
+    // 依赖热搜数据的 @Cacheable 缓存；启动时数据库会清空、id 从 1 重新开始，这些结果必须一起失效
+    private static final List<String> DERIVED_CACHES = List.of("searchResults", "aiSummary", "evaluation");
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final HotSearchCacheService hotSearchCacheService;
+    private final CacheManager cacheManager;
 
-    public CacheManagementService(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    public CacheManagementService(HotSearchCacheService hotSearchCacheService, CacheManager cacheManager) {
+        this.hotSearchCacheService = hotSearchCacheService;
+        this.cacheManager = cacheManager;
     }
 
     public void clearAllCache() {
         logger.info("Clear all cache");
         try {
-            redisTemplate.getConnectionFactory().getConnection().flushDb();
+            // 同时清空各节点的进程内缓存
+            hotSearchCacheService.clearAll();
+            for (String name : DERIVED_CACHES) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
         } catch (Exception e) {
             logger.error("Clear cache failed", e);
         }
@@ -26,6 +46,6 @@ public class CacheManagementService {
 
     public void clearPlatformCache(String platform) {
         logger.info("Clear platform cache: {}", platform);
-        redisTemplate.delete("hotsearch:platform:" + platform);
+        hotSearchCacheService.clearPlatformCache(PlatformType.valueOf(platform.toUpperCase()));
     }
 }
@@ -3,6 +3,7 @@ package org.xiaobuding.hotsearchaiplatform.service;
 import java.util.List;
 
 import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.util.BoundedLruCache;
 
 /**
  * 热搜分类服务
@@ -18,6 +19,15 @@ public interface CategoryClassificationService {
      */
     String classifyTitle(String title);
 
+    /**
+     * 只按关键词和规则推断分类，不读写分类缓存
+     * 大模型多次拿不到结果时用作兜底，避免条目一直停留在 pending
+     *
+     * @param title 热搜标题
+     * @return 分类结果
+     */
+    String classifyTitleByKeywords(String title);
+
     /**
      * 批量分类热搜项目
      *
@@ -25,4 +35,20 @@ public interface CategoryClassificationService {
      * @return 已附加分类结果的热搜列表
      */
     List<HotSearchItem> classifyItems(List<HotSearchItem> items);
+
+    /**
+     * 只用分类缓存和关键词批量分类，不调用大模型，可在采集和请求路径上同步执行
+     * 大模型可用时，关键词结果不够确定的条目标为 pending，交给待分类队列在后台分类
+     *
+     * @param items 热搜列表
+     * @return 已附加分类结果的热搜列表
+     */
+    List<HotSearchItem> classifyItemsByKeywords(List<HotSearchItem> items);
+
+    /**
+     * 分类结果缓存的统计信息
+     *
+     * @return 条目数、估算字节数、命中/未命中/淘汰次数
+     */
+    BoundedLruCache.Stats cacheStats();
 }
@@ -1,5 +0,0 @@
-package org.xiaobuding.hotsearchaiplatform.service;
-public interface ClassificationStatusService {
-    boolean tryStartClassification();
-    void endClassification();
-}
@@ -3,13 +3,58 @@ package org.xiaobuding.hotsearchaiplatform.service;
 import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
 import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface HotSearchCacheService {
     void cacheAll(List<HotSearchItem> items);
     void cachePlatform(PlatformType platform, List<HotSearchItem> items);
+    /**
+     * 全平台缓存列表；返回的列表和条目可能与近端缓存共享，只读，需要修改时先 {@link HotSearchItem#copy()}
+     */
     List<HotSearchItem> getAllCached();
+    /**
+     * 平台缓存列表，只读，同 {@link #getAllCached()}
+     */
     List<HotSearchItem> getPlatformCached(PlatformType platform);
+    /**
+     * 按排名读取平台列表的一段，可按分类过滤，只传输需要的条目；
+     * 降级条目和重复标题在截取前已去掉，返回条数只受实际条目数限制
+     *
+     * @param category 分类，为空表示不过滤；未分类的条目归入 pending
+     * @param limit    最多返回的条数，不大于 0 表示全部
+     * @return 平台列表未缓存（或已硬过期）时返回 null
+     */
+    List<HotSearchItem> getPlatformRange(PlatformType platform, String category, int limit);
+    /**
+     * 全平台缓存列表已超过软过期时间：仍可返回，但应安排后台刷新；缓存不存在时返回 false
+     */
+    boolean isAllStale();
+    /**
+     * 平台缓存列表已超过软过期时间
+     */
+    boolean isPlatformStale(PlatformType platform);
+    /**
+     * 全平台缓存列表的数据版本，列表每次写入或修补后递增；0 表示还没有版本
+     */
+    long getAllVersion();
+    /**
+     * 平台缓存列表的数据版本
+     */
+    long getPlatformVersion(PlatformType platform);
     void clearAll();
     void clearPlatformCache(PlatformType platform);
+    /**
+     * 数据未变化时只续期平台缓存，返回缓存是否存在
+     */
+    boolean touchPlatform(PlatformType platform);
+    /**
+     * 原地修改缓存列表中对应条目的分类，保留剩余过期时间；缓存不存在的键直接跳过
+     *
+     * @param platforms  需要修补的平台缓存，全平台缓存总是会被检查
+     * @param categories 条目 id -> 新分类
+     * @return 实际写回的缓存键数量
+     */
+    int patchCategories(Collection<PlatformType> platforms, Map<Long, String> categories);
 }
@@ -9,6 +9,17 @@ public interface HotSearchCollectorService {
 
     List<HotSearchItem> collectAll(boolean forceRefresh);
 
+    /**
+     * 无条件采集单个平台，不更新条件请求的校验器，结果不入库的调用方（如 AI 分析）使用
+     */
     List<HotSearchItem> collectByPlatform(PlatformType platformType, boolean forceRefresh);
+
+    /**
+     * 对上游发起条件请求采集单个平台，并记录被采用数据源的校验器
+     * 只供会把结果入库并写缓存的调用方使用：下一次 304 即表示库中内容仍是最新
+     *
+     * @throws org.xiaobuding.hotsearchaiplatform.exception.UpstreamNotModifiedException 上游返回 304，内容与上次一致
+     */
+    List<HotSearchItem> collectIfModified(PlatformType platformType);
 }
 
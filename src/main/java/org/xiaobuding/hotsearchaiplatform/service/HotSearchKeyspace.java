@@ -0,0 +1,225 @@
+package org.xiaobuding.hotsearchaiplatform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * 热搜缓存键的命名空间
+ * 所有热搜数据键都带当前代号（hotsearch:g<代号>:{资源}...），代号保存在 Redis 中。
+ * 资源名（platform:WEIBO、all）作为 hash tag，同一资源的列表、版本、令牌和索引键在集群中位于同一槽位，
+ * 可以在一个脚本中一起访问。
+ * 清空缓存只是把代号加一：读写立即切换到新的空命名空间，旧代号下的键由后台用 SCAN + UNLINK 分批回收，
+ * 不阻塞 Redis，也不影响会话和其他缓存。
+ * 各节点在本地缓存代号，代号变化时通过频道通知，另外每隔 check-ms 重新读取一次作为兜底。
+ * 引入命名空间之前写入的键（不带代号的列表、索引、版本和令牌键，版本键没有过期时间）不会被按代号回收，
+ * 首次初始化代号时由一个节点在后台一次性回收
+ */
+@Service
+public class HotSearchKeyspace implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(HotSearchKeyspace.class);
+    private static final String GENERATION_KEY = "hotsearch:generation";
+    private static final String GENERATION_CHANNEL = "hotsearch:cache:generation";
+    private static final String KEY_PREFIX = "hotsearch:g";
+    // 已回收过命名空间之前的旧键的标记，整个 Redis 只回收一次
+    private static final String LEGACY_RECLAIMED_KEY = "hotsearch:legacy-reclaimed";
+    // 命名空间之前的键名；刷新锁和令牌键（hotsearch:lock:*）仍在使用，不在其中
+    private static final List<String> LEGACY_PATTERNS = List.of(
+            "hotsearch:all", "hotsearch:platform:*", "hotsearch:version:*", "hotsearch:fence:*", "hotsearch:index:*");
+    private static final int RECLAIM_BATCH = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final TaskScheduler taskScheduler;
+    private final long checkMs;
+    private final AtomicBoolean reclaiming = new AtomicBoolean();
+    private volatile long generation = -1;
+    private volatile long checkedAt;
+
+    public HotSearchKeyspace(StringRedisTemplate redisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             TaskScheduler taskScheduler,
+                             @Value("${hotsearch.cache.generation-check-ms:1000}") long checkMs) {
+        this.redisTemplate = redisTemplate;
+        this.taskScheduler = taskScheduler;
+        this.checkMs = checkMs;
+        listenerContainer.addMessageListener(this, new ChannelTopic(GENERATION_CHANNEL));
+    }
+
+    /**
+     * 资源在当前代号下的键名，资源的其他键在其后追加 ":后缀"
+     *
+     * @param resource 去掉 "hotsearch:" 前缀后的资源名，如 platform:WEIBO、all
+     * @return 如 hotsearch:g3:{platform:WEIBO}
+     */
+    public String key(String resource) {
+        return KEY_PREFIX + generation() + ":{" + resource + "}";
+    }
+
+    /**
+     * 切换到新的代号，旧代号下的键在后台回收
+     *
+     * @return 新代号
+     */
+    public long advance() {
+        Long next = redisTemplate.opsForValue().increment(GENERATION_KEY);
+        long current = next == null ? generation() : next;
+        generation = current;
+        checkedAt = System.currentTimeMillis();
+        try {
+            redisTemplate.convertAndSend(GENERATION_CHANNEL, String.valueOf(current));
+        } catch (Exception e) {
+            logger.warn("发送缓存代号变更通知失败，其他节点将在 {}ms 内自行发现: {}", checkMs, e.getMessage());
+        }
+        reclaimInBackground();
+        return current;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        checkedAt = 0;
+    }
+
+    private long generation() {
+        long now = System.currentTimeMillis();
+        if (generation >= 0 && now - checkedAt < checkMs) {
+            return generation;
+        }
+        try {
+            boolean first = generation < 0;
+            String value = redisTemplate.opsForValue().get(GENERATION_KEY);
+            generation = value == null ? 0 : Long.parseLong(value);
+            checkedAt = now;
+            if (first) {
+                reclaimLegacyInBackground();
+            }
+        } catch (Exception e) {
+            // Redis 暂时不可用时沿用本地代号，随后的读写本身也会失败并走各自的降级逻辑
+            if (generation < 0) {
+                generation = 0;
+            }
+        }
+        return generation;
+    }
+
+    private void reclaimInBackground() {
+        if (!reclaiming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskScheduler.schedule(() -> {
+                try {
+                    reclaim();
+                } catch (Exception e) {
+                    logger.warn("回收旧命名空间失败，剩余的键将在下次清空时继续回收: {}", e.getMessage());
+                } finally {
+                    reclaiming.set(false);
+                }
+            }, Instant.now());
+        } catch (RuntimeException e) {
+            reclaiming.set(false);
+            logger.warn("提交旧命名空间回收任务失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 本进程首次读取代号时调用；标记键保证只有一个节点、只回收一次
+     */
+    private void reclaimLegacyInBackground() {
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LEGACY_RECLAIMED_KEY, String.valueOf(System.currentTimeMillis())))) {
+            return;
+        }
+        try {
+            taskScheduler.schedule(() -> {
+                try {
+                    long reclaimed = 0;
+                    for (String pattern : LEGACY_PATTERNS) {
+                        reclaimed += unlinkMatching(pattern, key -> true);
+                    }
+                    logger.info("回收命名空间之前的旧键完成: 释放 {} 个键", reclaimed);
+                } catch (Exception e) {
+                    // 清除标记，下次启动时重试
+                    redisTemplate.delete(LEGACY_RECLAIMED_KEY);
+                    logger.warn("回收命名空间之前的旧键失败，下次启动时重试: {}", e.getMessage());
+                }
+            }, Instant.now());
+        } catch (RuntimeException e) {
+            redisTemplate.delete(LEGACY_RECLAIMED_KEY);
+            logger.warn("提交旧键回收任务失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * SCAN 出所有代号小于当前代号的键，分批 UNLINK（内存在 Redis 后台线程释放）
+     */
+    private void reclaim() {
+        long current = generation();
+        long reclaimed = unlinkMatching(KEY_PREFIX + "[0-9]*", key -> {
+            long keyGeneration = generationOf(key);
+            return keyGeneration >= 0 && keyGeneration < current;
+        });
+        logger.info("回收旧命名空间完成: 当前代号 {}，释放 {} 个键", current, reclaimed);
+    }
+
+    /**
+     * SCAN 出匹配 pattern 且满足 filter 的键，分批 UNLINK
+     *
+     * @return 释放的键数
+     */
+    private long unlinkMatching(String pattern, Predicate<String> filter) {
+        long reclaimed = 0;
+        List<String> batch = new ArrayList<>(RECLAIM_BATCH);
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(RECLAIM_BATCH).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (!filter.test(key)) {
+                    continue;
+                }
+                batch.add(key);
+                if (batch.size() >= RECLAIM_BATCH) {
+                    reclaimed += unlink(batch);
+                }
+            }
+        }
+        return reclaimed + unlink(batch);
+    }
+
+    private long unlink(List<String> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Long removed = redisTemplate.unlink(batch);
+        batch.clear();
+        return removed == null ? 0 : removed;
+    }
+
+    /**
+     * @return 键名中的代号，不是命名空间键时返回 -1
+     */
+    private static long generationOf(String key) {
+        int end = key.indexOf(':', KEY_PREFIX.length());
+        if (end <= KEY_PREFIX.length()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(key.substring(KEY_PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.xiaobuding.hotsearchaiplatform.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.repository.HotSearchRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 热搜榜单的数据库写入
+ * 采集和分类（可能耗时数秒到数十秒）在事务外完成，这里只包含写操作，事务只持有数据库连接几毫秒。
+ * 已存在的行用按列的 UPDATE 写入，不合并整行实体，不会覆盖待分类队列同时写回的分类
+ */
+@Service
+public class HotSearchPersistenceService {
+    private final HotSearchRepository repository;
+
+    public HotSearchPersistenceService(HotSearchRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * 写入一个平台的榜单变化，并统一刷新该平台的抓取时间
+     *
+     * @param inserted   新上榜的条目
+     * @param updated    排名、热度或链接有变化的已有行
+     * @param classified 本次完成分类的已有行，只在库中仍未分类时写入
+     * @param removed    已下榜的行
+     * @return 写入的抓取时间
+     */
+    @Transactional
+    public LocalDateTime writeChanges(PlatformType platform,
+                                      List<HotSearchItem> inserted,
+                                      List<HotSearchItem> updated,
+                                      List<HotSearchItem> classified,
+                                      List<HotSearchItem> removed) {
+        if (!removed.isEmpty()) {
+            repository.deleteAllInBatch(removed);
+        }
+        repository.saveAll(inserted);
+        for (HotSearchItem row : updated) {
+            repository.updateListing(row.getId(), row.getRank(), row.getHeat(), row.getUrl());
+        }
+        for (HotSearchItem row : classified) {
+            repository.updateCategoryIfUnclassified(row.getId(), row.getCategory());
+        }
+        // 先写出新插入的行，再批量刷新抓取时间（该 UPDATE 会清空持久化上下文）
+        repository.flush();
+        LocalDateTime now = LocalDateTime.now();
+        repository.touchCapturedAtByPlatform(platform, now);
+        return now;
+    }
+
+    /**
+     * 榜单未变化：只刷新该平台的抓取时间
+     *
+     * @return 更新的行数
+     */
+    @Transactional
+    public int touch(PlatformType platform, LocalDateTime capturedAt) {
+        return repository.touchCapturedAtByPlatform(platform, capturedAt);
+    }
+}
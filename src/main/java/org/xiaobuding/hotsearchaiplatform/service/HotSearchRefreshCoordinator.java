@@ -0,0 +1,231 @@
+package org.xiaobuding.hotsearchaiplatform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 热搜刷新单飞协调
+ * 同一资源（平台或全平台视图）同一时刻只有一个调用方执行采集：本节点内其他调用方等待同一个 future，
+ * 跨节点通过 Redis 锁（SET NX PX）互斥，锁值为单调递增的隔离令牌，释放时比较令牌后删除；
+ * 执行方持锁期间的缓存写入由 {@link RefreshFence} 校验令牌，锁过期后迟到的旧执行方不会覆盖新数据。
+ * 缓存陈旧（已过软过期时间）时由 {@link #refreshInBackground} 在调度线程池中刷新，请求线程不等待采集
+ */
+@Service
+public class HotSearchRefreshCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(HotSearchRefreshCoordinator.class);
+    public static final String ALL_RESOURCE = "all";
+    private static final String LOCK_KEY_PREFIX = "hotsearch:lock:";
+    private static final String TOKEN_KEY_PREFIX = "hotsearch:lock:token:";
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TaskScheduler taskScheduler;
+    private final long lockTtlMs;
+    private final long waitMs;
+    private final long pollMs;
+    private final Map<String, CompletableFuture<List<HotSearchItem>>> inFlight = new ConcurrentHashMap<>();
+    // 已提交、尚未结束的后台刷新
+    private final Set<String> backgroundRefreshes = ConcurrentHashMap.newKeySet();
+
+    public HotSearchRefreshCoordinator(StringRedisTemplate redisTemplate,
+                                       TaskScheduler taskScheduler,
+                                       @Value("${hotsearch.singleflight.lock-ttl-ms:30000}") long lockTtlMs,
+                                       @Value("${hotsearch.singleflight.wait-ms:10000}") long waitMs,
+                                       @Value("${hotsearch.singleflight.poll-ms:200}") long pollMs) {
+        this.redisTemplate = redisTemplate;
+        this.taskScheduler = taskScheduler;
+        this.lockTtlMs = lockTtlMs;
+        this.waitMs = waitMs;
+        this.pollMs = pollMs;
+    }
+
+    public static String platformResource(PlatformType platform) {
+        return "platform:" + platform;
+    }
+
+    /**
+     * 缓存未命中时加载
+     * 本节点已有调用方在加载时等待其结果；其他节点持锁时轮询缓存等待其写入，超时后自己加载
+     *
+     * @param cacheReader 读取缓存，未命中返回 null 或空列表
+     * @param loader      实际采集
+     */
+    public List<HotSearchItem> load(String resource, Supplier<List<HotSearchItem>> cacheReader,
+                                    Supplier<List<HotSearchItem>> loader) {
+        CompletableFuture<List<HotSearchItem>> flight = new CompletableFuture<>();
+        CompletableFuture<List<HotSearchItem>> existing = inFlight.putIfAbsent(resource, flight);
+        if (existing != null) {
+            return awaitLocal(resource, existing, cacheReader);
+        }
+        try {
+            List<HotSearchItem> result = lead(resource, cacheReader, loader);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(resource, flight);
+        }
+    }
+
+    /**
+     * 定时刷新：本节点或其他节点正在刷新同一资源时跳过
+     *
+     * @return 是否执行了刷新
+     */
+    public boolean refreshIfIdle(String resource, Supplier<List<HotSearchItem>> loader) {
+        CompletableFuture<List<HotSearchItem>> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(resource, flight) != null) {
+            return false;
+        }
+        try {
+            Long token;
+            try {
+                token = tryLock(resource);
+            } catch (Exception e) {
+                logger.warn("获取刷新锁失败，直接刷新 {}: {}", resource, e.getMessage());
+                flight.complete(loader.get());
+                return true;
+            }
+            if (token == null) {
+                flight.complete(null);
+                return false;
+            }
+            try {
+                flight.complete(RefreshFence.callWith(new RefreshFence.Token(resource, token), loader));
+            } finally {
+                unlock(resource, token);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(resource, flight);
+        }
+    }
+
+    /**
+     * 缓存陈旧时调用，立即返回；同一资源同时最多一个后台刷新，其他节点正在刷新时跳过
+     */
+    public void refreshInBackground(String resource, Supplier<List<HotSearchItem>> loader) {
+        if (inFlight.containsKey(resource) || !backgroundRefreshes.add(resource)) {
+            return;
+        }
+        try {
+            taskScheduler.schedule(() -> {
+                try {
+                    if (refreshIfIdle(resource, loader)) {
+                        logger.info("后台刷新陈旧缓存完成: {}", resource);
+                    }
+                } catch (Exception e) {
+                    logger.warn("后台刷新 {} 失败，继续返回陈旧缓存: {}", resource, e.getMessage());
+                } finally {
+                    backgroundRefreshes.remove(resource);
+                }
+            }, Instant.now());
+        } catch (RuntimeException e) {
+            backgroundRefreshes.remove(resource);
+            logger.warn("提交后台刷新 {} 失败: {}", resource, e.getMessage());
+        }
+    }
+
+    private List<HotSearchItem> lead(String resource, Supplier<List<HotSearchItem>> cacheReader,
+                                     Supplier<List<HotSearchItem>> loader) {
+        // 等待进入期间别的调用方可能刚写好缓存
+        List<HotSearchItem> cached = cacheReader.get();
+        if (cached != null && !cached.isEmpty()) {
+            return cached;
+        }
+        Long token;
+        try {
+            token = tryLock(resource);
+        } catch (Exception e) {
+            logger.warn("获取刷新锁失败，直接加载 {}: {}", resource, e.getMessage());
+            return loader.get();
+        }
+        if (token != null) {
+            try {
+                return RefreshFence.callWith(new RefreshFence.Token(resource, token), loader);
+            } finally {
+                unlock(resource, token);
+            }
+        }
+        logger.info("{} 正由其他节点刷新，等待其写入缓存", resource);
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(pollMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            cached = cacheReader.get();
+            if (cached != null && !cached.isEmpty()) {
+                return cached;
+            }
+        }
+        // 持锁节点超时未写入（可能已宕机，锁随后过期），自己加载；不持锁的写入不做令牌校验
+        logger.warn("等待 {} 刷新超时 ({}ms)，本节点直接加载", resource, waitMs);
+        return loader.get();
+    }
+
+    private List<HotSearchItem> awaitLocal(String resource, CompletableFuture<List<HotSearchItem>> flight,
+                                           Supplier<List<HotSearchItem>> cacheReader) {
+        try {
+            List<HotSearchItem> result = flight.get(waitMs, TimeUnit.MILLISECONDS);
+            if (result != null) {
+                return result;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("等待 {} 刷新未得到结果，返回现有缓存: {}", resource, e.toString());
+        }
+        List<HotSearchItem> cached = cacheReader.get();
+        return cached != null ? cached : new ArrayList<>();
+    }
+
+    /**
+     * @return 获得锁时返回隔离令牌，锁被占用时返回 null
+     */
+    private Long tryLock(String resource) {
+        Long token = redisTemplate.opsForValue().increment(TOKEN_KEY_PREFIX + resource);
+        if (token == null) {
+            return null;
+        }
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY_PREFIX + resource,
+                String.valueOf(token), lockTtlMs, TimeUnit.MILLISECONDS);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    private void unlock(String resource, long token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY_PREFIX + resource), String.valueOf(token));
+        } catch (Exception e) {
+            logger.warn("释放刷新锁失败 {}: {}", resource, e.getMessage());
+        }
+    }
+}
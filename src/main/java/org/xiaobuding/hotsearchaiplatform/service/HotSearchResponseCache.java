@@ -0,0 +1,197 @@
+package org.xiaobuding.hotsearchaiplatform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.service.platform.HotSearchSourceRegistry;
+import org.xiaobuding.hotsearchaiplatform.service.task.PendingClassificationQueue;
+import org.xiaobuding.hotsearchaiplatform.util.BoundedLruCache;
+import org.xiaobuding.hotsearchaiplatform.util.DataDeduplicationUtil;
+import org.xiaobuding.hotsearchaiplatform.util.HotSearchFingerprint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 热搜列表响应快照
+ * 按 "平台 + 分类 + 条数" 缓存已经过滤、修复、去重、排序并序列化好的 UTF-8 JSON 及其 gzip 压缩结果，
+ * 接口直接写出字节。整表快照与生成它的缓存列表实例绑定：近端缓存换了新列表（写入、失效或过期）后首次请求重新生成，
+ * 其余请求只是一次查表；按索引读取的部分列表每次都是新实例，改为与数据版本绑定。
+ * 强 ETag 由快照的 JSON 字节计算：响应体还取决于生成时刻（超过 10 分钟的条目按降级过滤），
+ * 同一数据版本可能生成不同的字节，只有按字节计算才能保证同一 ETag 对应同一响应
+ */
+@Service
+public class HotSearchResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(HotSearchResponseCache.class);
+    // 超过该时间的抓取数据视为降级数据
+    private static final Duration DEGRADED_AFTER = Duration.ofMinutes(10);
+
+    /**
+     * 序列化好的响应
+     *
+     * @param pending 仍需分类的条目，每次命中时重新提交给分类队列
+     * @param version 生成时的数据版本，只用于按版本绑定的快照
+     * @param etag    由 json 字节计算的强 ETag（已带引号）
+     */
+    public record RenderedView(List<HotSearchItem> source,
+                               byte[] json,
+                               byte[] gzip,
+                               List<HotSearchItem> pending,
+                               long version,
+                               String etag) {
+
+        /**
+         * gzip 响应的字节不同，ETag 加后缀区分
+         */
+        public String etag(boolean gzipped) {
+            return gzipped ? etag.substring(0, etag.length() - 1) + ".gz\"" : etag;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final HotSearchSourceRegistry sourceRegistry;
+    private final BoundedLruCache<String, RenderedView> views;
+
+    public HotSearchResponseCache(ObjectMapper objectMapper,
+                                  HotSearchSourceRegistry sourceRegistry,
+                                  @Value("${hotsearch.response.snapshot.max-entries:256}") int maxEntries,
+                                  @Value("${hotsearch.response.snapshot.max-bytes:16777216}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.sourceRegistry = sourceRegistry;
+        this.views = new BoundedLruCache<>(maxEntries, maxBytes,
+                (key, view) -> 128 + 2L * key.length() + view.json().length + view.gzip().length);
+    }
+
+    /**
+     * 取得 source 在指定视图下的响应，source 仍是上次生成时的同一实例时直接返回快照
+     *
+     * @param view     视图名（平台名或 all）
+     * @param category 分类过滤，null 或空表示不过滤
+     * @param limit    只保留排名最前的条数，不大于 0 表示全部
+     */
+    public RenderedView render(String view, String category, int limit, List<HotSearchItem> source) {
+        String key = viewKey(view, category, limit);
+        RenderedView cached = views.get(key);
+        if (cached != null && cached.source() == source) {
+            return cached;
+        }
+        RenderedView rendered = build(source, category, limit, 0);
+        views.put(key, rendered);
+        return rendered;
+    }
+
+    /**
+     * 按数据版本绑定的响应：版本与上次生成时相同时不调用 loader
+     *
+     * @param version 当前数据版本，不大于 0 时总是重新生成
+     * @param loader  读取该视图需要的条目（可以只是按分类或条数读出的部分列表）
+     */
+    public RenderedView render(String view, String category, int limit, long version,
+                               Supplier<List<HotSearchItem>> loader) {
+        String key = viewKey(view, category, limit);
+        RenderedView cached = views.get(key);
+        if (cached != null && version > 0 && cached.version() == version) {
+            return cached;
+        }
+        RenderedView rendered = build(loader.get(), category, limit, version);
+        views.put(key, rendered);
+        return rendered;
+    }
+
+    public BoundedLruCache.Stats stats() {
+        return views.stats();
+    }
+
+    /**
+     * 过滤降级数据：去掉标记为降级或抓取时间超过 10 分钟的条目；全部被过滤时保留原列表
+     */
+    public List<HotSearchItem> filterDegradedData(List<HotSearchItem> items) {
+        LocalDateTime now = LocalDateTime.now();
+        List<HotSearchItem> filtered = items.stream().filter(item -> {
+            if ("degraded".equals(item.getCategory())) return false;
+            if (item.getCapturedAt() != null) {
+                long minutesAgo = Duration.between(item.getCapturedAt(), now).toMinutes();
+                if (minutesAgo > DEGRADED_AFTER.toMinutes()) return false;
+            }
+            return true;
+        }).collect(Collectors.toList());
+        if (filtered.isEmpty() && !items.isEmpty()) return items;
+        return filtered;
+    }
+
+    /**
+     * 补全缺失的链接和分类
+     * 传入的多是缓存中共享的条目，不原地修改：返回新列表，需要补全的条目换成补全后的副本
+     */
+    public List<HotSearchItem> repairHotSearchItems(List<HotSearchItem> items) {
+        List<HotSearchItem> repaired = new ArrayList<>(items.size());
+        for (HotSearchItem item : items) {
+            boolean missingUrl = item.getUrl() == null || item.getUrl().isEmpty();
+            boolean missingCategory = item.getCategory() == null || item.getCategory().isEmpty();
+            if (missingUrl || missingCategory) {
+                item = item.copy();
+                if (missingUrl) {
+                    item.setUrl(sourceRegistry.itemUrl(item.getPlatform(), item.getTitle()));
+                }
+                if (missingCategory) {
+                    item.setCategory("pending");
+                }
+            }
+            repaired.add(item);
+        }
+        return repaired;
+    }
+
+    private static String viewKey(String view, String category, int limit) {
+        String key = category == null || category.isEmpty() ? view : view + "|" + category;
+        return limit > 0 ? key + "|" + limit : key;
+    }
+
+    private RenderedView build(List<HotSearchItem> source, String category, int limit, long version) {
+        List<HotSearchItem> items = filterDegradedData(source);
+        items = repairHotSearchItems(items);
+        items = DataDeduplicationUtil.deduplicateByTitle(items);
+        if (category != null && !category.isEmpty()) {
+            items = items.stream().filter(item -> item.getCategory() != null && item.getCategory().equals(category)).collect(Collectors.toList());
+        }
+        // 按rank升序排序（rank 1是第一名，rank小的排前面）
+        items = items.stream().sorted(Comparator.comparing(HotSearchItem::getRank)).collect(Collectors.toList());
+        if (limit > 0 && items.size() > limit) {
+            items = items.subList(0, limit);
+        }
+        List<HotSearchItem> pending = items.stream().filter(PendingClassificationQueue::needsClassification).collect(Collectors.toList());
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("热搜列表序列化失败", e);
+        }
+        byte[] gzip = gzip(json);
+        logger.debug("Rendered hot search view: {} items, {} bytes json, {} bytes gzip", items.size(), json.length, gzip.length);
+        String etag = "\"" + Long.toHexString(HotSearchFingerprint.of(json)) + "\"";
+        return new RenderedView(source, json, gzip, pending, version, etag);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,231 @@
+package org.xiaobuding.hotsearchaiplatform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchUpdate;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.service.task.ScheduledJobRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热搜更新推送
+ * 平台榜单写入缓存或分类修补后计算与上一版的增量（新上榜、下榜、排名/热度/分类变化），
+ * 经 Redis 频道广播到所有节点，再由各节点推送给本机的 SSE 订阅者。
+ * 定时发送注释行作为心跳，及时发现并清理已断开的连接
+ */
+@Service
+public class HotSearchUpdateBroadcaster implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(HotSearchUpdateBroadcaster.class);
+    private static final String UPDATE_CHANNEL = "hotsearch:updates";
+    // 客户端断线后的重连间隔
+    private static final long RECONNECT_MS = 3000;
+
+    /**
+     * 计算增量所需的条目状态，在榜单被修改前记录
+     */
+    public record ItemState(Integer rank, Long heat, String category) {
+    }
+
+    private record Subscriber(SseEmitter emitter, PlatformType platform) {
+    }
+
+    private final HotSearchCacheService cacheService;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduledJobRunner jobRunner;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final long heartbeatMs;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public HotSearchUpdateBroadcaster(HotSearchCacheService cacheService,
+                                      ObjectMapper objectMapper,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      ScheduledJobRunner jobRunner,
+                                      @Value("${hotsearch.stream.timeout-ms:1800000}") long timeoutMs,
+                                      @Value("${hotsearch.stream.max-subscribers:1000}") int maxSubscribers,
+                                      @Value("${hotsearch.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.cacheService = cacheService;
+        this.objectMapper = objectMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jobRunner = jobRunner;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMs = heartbeatMs;
+        listenerContainer.addMessageListener(this, new ChannelTopic(UPDATE_CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleHeartbeat() {
+        jobRunner.register("sse-heartbeat", heartbeatMs, heartbeatMs, 0, this::heartbeat);
+    }
+
+    /**
+     * 订阅更新，连接建立后先推送一次当前数据版本
+     *
+     * @param platform 只接收该平台的更新，null 表示全部平台
+     * @return 订阅数已满时返回 null
+     */
+    public SseEmitter subscribe(PlatformType platform) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, platform);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        Map<PlatformType, Long> versions = new EnumMap<>(PlatformType.class);
+        for (PlatformType p : PlatformType.values()) {
+            if (platform == null || platform == p) {
+                versions.put(p, cacheService.getPlatformVersion(p));
+            }
+        }
+        send(subscriber, SseEmitter.event().name("versions").reconnectTime(RECONNECT_MS).data(versions));
+        return emitter;
+    }
+
+    /**
+     * 记录榜单修改前的状态，按标题索引
+     */
+    public Map<String, ItemState> capture(List<HotSearchItem> items) {
+        Map<String, ItemState> states = new LinkedHashMap<>();
+        for (HotSearchItem item : items) {
+            states.putIfAbsent(item.getTitle(), new ItemState(item.getRank(), item.getHeat(), item.getCategory()));
+        }
+        return states;
+    }
+
+    /**
+     * 平台写入新榜单后调用，有变化时广播增量
+     */
+    public void publishSnapshot(PlatformType platform, Map<String, ItemState> before, List<HotSearchItem> after) {
+        Map<String, ItemState> remaining = new LinkedHashMap<>(before);
+        List<HotSearchItem> added = new ArrayList<>();
+        List<HotSearchUpdate.Change> changed = new ArrayList<>();
+        for (HotSearchItem item : after) {
+            ItemState old = remaining.remove(item.getTitle());
+            if (old == null) {
+                if (!before.containsKey(item.getTitle())) {
+                    added.add(item);
+                }
+                continue;
+            }
+            HotSearchUpdate.Change change = new HotSearchUpdate.Change(item.getTitle());
+            boolean modified = false;
+            if (!Objects.equals(old.rank(), item.getRank())) {
+                change.setRank(item.getRank());
+                modified = true;
+            }
+            if (!Objects.equals(old.heat(), item.getHeat())) {
+                change.setHeat(item.getHeat());
+                modified = true;
+            }
+            if (!Objects.equals(old.category(), item.getCategory())) {
+                change.setCategory(item.getCategory());
+                modified = true;
+            }
+            if (modified) {
+                changed.add(change);
+            }
+        }
+        if (added.isEmpty() && changed.isEmpty() && remaining.isEmpty()) {
+            return;
+        }
+        HotSearchUpdate update = new HotSearchUpdate();
+        update.setPlatform(platform);
+        update.setAdded(added);
+        update.setRemoved(new ArrayList<>(remaining.keySet()));
+        update.setChanged(changed);
+        publish(update);
+    }
+
+    /**
+     * 后台分类完成后广播分类变化
+     */
+    public void publishCategories(List<HotSearchItem> classified) {
+        Map<PlatformType, List<HotSearchUpdate.Change>> changes = new EnumMap<>(PlatformType.class);
+        for (HotSearchItem item : classified) {
+            HotSearchUpdate.Change change = new HotSearchUpdate.Change(item.getTitle());
+            change.setCategory(item.getCategory());
+            changes.computeIfAbsent(item.getPlatform(), p -> new ArrayList<>()).add(change);
+        }
+        changes.forEach((platform, platformChanges) -> {
+            HotSearchUpdate update = new HotSearchUpdate();
+            update.setPlatform(platform);
+            update.setChanged(platformChanges);
+            publish(update);
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || subscribers.isEmpty()) {
+            return;
+        }
+        PlatformType platform;
+        try {
+            platform = PlatformType.valueOf(body.substring(0, separator));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        String json = body.substring(separator + 1);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.platform() == null || subscriber.platform() == platform) {
+                send(subscriber, SseEmitter.event().name("update").data(json));
+            }
+        }
+    }
+
+    private void publish(HotSearchUpdate update) {
+        try {
+            update.setVersion(cacheService.getPlatformVersion(update.getPlatform()));
+            update.setPublishedAt(System.currentTimeMillis());
+            String json = objectMapper.writeValueAsString(update);
+            stringRedisTemplate.convertAndSend(UPDATE_CHANNEL, update.getPlatform().name() + "|" + json);
+        } catch (Exception e) {
+            logger.warn("广播热搜更新失败: platform={}, {}", update.getPlatform(), e.getMessage());
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+        } catch (Exception e) {
+            // 客户端已断开，连接由容器回收
+            subscribers.remove(subscriber);
+        }
+    }
+}
@@ -35,26 +35,23 @@ public class PlatformHealthService {
     ) {}
 
     private record Metadata(
-            String cacheKey,
             String failureKey,
             int alertThreshold,
             String degradePrefix
     ) {}
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final HotSearchCacheService cacheService;
     private final Map<PlatformType, Metadata> metadataMap = new EnumMap<>(PlatformType.class);
 
-    public PlatformHealthService(RedisTemplate<String, Object> redisTemplate) {
+    public PlatformHealthService(RedisTemplate<String, Object> redisTemplate, HotSearchCacheService cacheService) {
         this.redisTemplate = redisTemplate;
+        this.cacheService = cacheService;
         // 初始化各平台元数据
-        metadataMap.put(PlatformType.TOUTIAO,
-                new Metadata("hotsearch:platform:TOUTIAO", "hotsearch:TOUTIAO:failure:count", 3, "【降级数据】"));
-        metadataMap.put(PlatformType.WEIBO,
-                new Metadata("hotsearch:platform:weibo", "hotsearch:weibo:failure:count", 3, "【降级数据】"));
-        metadataMap.put(PlatformType.BILIBILI,
-                new Metadata("hotsearch:platform:BILIBILI", "hotsearch:BILIBILI:failure:count", 3, "【降级数据】"));
-        metadataMap.put(PlatformType.DOUYIN,
-                new Metadata("hotsearch:platform:DOUYIN", "hotsearch:DOUYIN:failure:count", 3, "【降级数据】"));
+        for (PlatformType platform : PlatformType.values()) {
+            metadataMap.put(platform, new Metadata(
+                    "hotsearch:" + platform.name() + ":failure:count", 3, "【降级数据】"));
+        }
     }
 
     /**
@@ -67,7 +64,7 @@ public class PlatformHealthService {
         }
 
         long failureCount = getFailureCount(metadata.failureKey());
-        List<HotSearchItem> cachedItems = getCachedItems(metadata.cacheKey());
+        List<HotSearchItem> cachedItems = getCachedItems(platformType);
         boolean degraded = isDegraded(cachedItems, metadata.degradePrefix());
         LocalDateTime lastUpdated = cachedItems.isEmpty() ? null : cachedItems.get(0).getCapturedAt();
 
@@ -103,10 +100,9 @@ public class PlatformHealthService {
         return count != null ? Long.parseLong(count.toString()) : 0;
     }
 
-    @SuppressWarnings("unchecked")
-    private List<HotSearchItem> getCachedItems(String cacheKey) {
-        Object cached = redisTemplate.opsForValue().get(cacheKey);
-        return (cached instanceof List) ? (List<HotSearchItem>) cached : new ArrayList<>();
+    private List<HotSearchItem> getCachedItems(PlatformType platformType) {
+        List<HotSearchItem> cached = cacheService.getPlatformCached(platformType);
+        return cached != null ? cached : new ArrayList<>();
     }
 
     private boolean isDegraded(List<HotSearchItem> items, String degradePrefix) {
@@ -0,0 +1,41 @@
+package org.xiaobuding.hotsearchaiplatform.service;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程持有的刷新锁隔离令牌
+ * 单飞刷新的执行方在持锁期间绑定令牌；缓存写入时若令牌对应的正是要写的键，
+ * 只有令牌不小于该键已写入过的最大令牌才允许写入，锁过期后被接管的旧执行方写不回过期数据
+ */
+public final class RefreshFence {
+
+    /**
+     * @param resource 资源名，与缓存键去掉 "hotsearch:" 前缀后一致（如 platform:WEIBO、all）
+     * @param token    获取锁时分配的单调递增令牌
+     */
+    public record Token(String resource, long token) {
+    }
+
+    private static final ThreadLocal<Token> CURRENT = new ThreadLocal<>();
+
+    private RefreshFence() {
+    }
+
+    public static Token current() {
+        return CURRENT.get();
+    }
+
+    static <T> T callWith(Token token, Supplier<T> action) {
+        Token previous = CURRENT.get();
+        CURRENT.set(token);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
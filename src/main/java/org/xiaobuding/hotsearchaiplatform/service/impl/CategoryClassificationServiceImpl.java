@@ -1,23 +1,23 @@
 package org.xiaobuding.hotsearchaiplatform.service.impl;
 import org.slf4j.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
 import org.xiaobuding.hotsearchaiplatform.service.*;
+import org.xiaobuding.hotsearchaiplatform.util.AhoCorasickMatcher;
+import org.xiaobuding.hotsearchaiplatform.util.BoundedLruCache;
+import org.xiaobuding.hotsearchaiplatform.util.TitleCoreWords;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class CategoryClassificationServiceImpl implements CategoryClassificationService {
     private static final Logger logger = LoggerFactory.getLogger(CategoryClassificationServiceImpl.class);
     
-    // 分类结果缓存：标题核心词 -> 分类
-    private static final Map<String, String> CLASSIFICATION_CACHE = new ConcurrentHashMap<>();
-    
     // 关键词分类映射
     private static final Map<String, String[]> CATEGORY_KEYWORDS = new HashMap<>();
     
@@ -27,9 +27,14 @@ public class CategoryClassificationServiceImpl implements CategoryClassification
         "枪击", "行凶", "诈骗", "非法集资", "维权", "治安", "群体事件", "塌楼", "高空坠物"
     ));
 
-    private static final Pattern CULTURE_RELAXED_PATTERN = Pattern.compile(
-        "(文化|历史|文史|考古|文物|古迹|博物馆|展览|展陈|文旅|古诗|诗词|汉服|国风|书法|国学|戏曲|京剧|昆曲|文艺|作家|文学奖|出版|读书|古籍|遗址|碑刻|非遗|文创|艺术节|文化节|文博会|故宫|敦煌|长城|文庙|书展|碑林|展演|演出|舞台|音乐节|演唱会|话剧|舞蹈|国粹|民俗|传统服饰|民乐|民谣|艺术展|设计展|画展|雕塑展|国潮|国风音乐|汉元素)"
-    );
+    // 文化线索词：标题包含任一即视为带有文化属性
+    private static final String[] CULTURE_CUE_KEYWORDS = {
+        "文化", "历史", "文史", "考古", "文物", "古迹", "博物馆", "展览", "展陈", "文旅", "古诗", "诗词", "汉服", "国风",
+        "书法", "国学", "戏曲", "京剧", "昆曲", "文艺", "作家", "文学奖", "出版", "读书", "古籍", "遗址", "碑刻", "非遗",
+        "文创", "艺术节", "文化节", "文博会", "故宫", "敦煌", "长城", "文庙", "书展", "碑林", "展演", "演出", "舞台",
+        "音乐节", "演唱会", "话剧", "舞蹈", "国粹", "民俗", "传统服饰", "民乐", "民谣", "艺术展", "设计展", "画展",
+        "雕塑展", "国潮", "国风音乐", "汉元素"
+    };
 
     private static final Set<String> MILITARY_RELAXED_KEYWORDS = new HashSet<>(Arrays.asList(
         "航天", "火箭", "卫星", "探月", "嫦娥", "神舟", "东风", "长剑", "长征", "导弹试射", "战局", "战况",
@@ -152,16 +157,223 @@ public class CategoryClassificationServiceImpl implements CategoryClassification
             "人口", "人口政策", "生育", "养老", "老龄化", "人口问题"
         });
     }
+
+    // 评分顺序和权重（严格分类，均衡分布）：军事、政治、科技、经济、体育、娱乐、文化、社会
+    private static final String[] PRIORITY_ORDER = {"military", "politics", "tech", "economy", "sports", "entertainment", "culture", "society"};
+    private static final double[] CATEGORY_WEIGHTS = {
+        2.5,  // 军事最高优先级
+        2.5,  // 政治最高优先级
+        2.0,  // 科技高优先级
+        1.8,  // 经济较高优先级
+        1.6,  // 体育中等优先级
+        1.6,  // 娱乐中等优先级
+        2.0,  // 文化适当提升权重
+        0.7   // 社会作为兜底，降低权重
+    };
+    private static final int MILITARY = 0;
+    private static final int POLITICS = 1;
+    private static final int TECH = 2;
+    private static final int ECONOMY = 3;
+    private static final int CULTURE = 6;
+    private static final int SOCIETY = 7;
+
+    // 关键词附带的标记位
+    private static final int FLAG_SOCIETY_HIGH_IMPACT = 1;
+    private static final int FLAG_RELAXED_MILITARY = 1 << 1;
+    private static final int FLAG_RELAXED_CULTURE = 1 << 2;
+    private static final int FLAG_CULTURE_CUE = 1 << 3;
+
+    // 所有关键词表编译成一个自动机，扫描一遍标题即可得到各分类命中数和各类标记
+    private static final AhoCorasickMatcher KEYWORD_MATCHER;
+    // 关键词在各分类关键词表中出现的次数（表内重复的关键词按原逻辑重复计数）
+    private static final int[][] KEYWORD_CATEGORY_COUNTS;
+    private static final int[] KEYWORD_FLAGS;
+    // 每个线程复用的计数缓冲区，分类过程不分配对象
+    private static final ThreadLocal<MatchScratch> SCRATCH;
+
+    static {
+        AhoCorasickMatcher.Builder builder = AhoCorasickMatcher.builder();
+        Map<Integer, int[]> categoryCounts = new HashMap<>();
+        Map<Integer, Integer> flags = new HashMap<>();
+        for (int cat = 0; cat < PRIORITY_ORDER.length; cat++) {
+            for (String keyword : CATEGORY_KEYWORDS.get(PRIORITY_ORDER[cat])) {
+                int id = builder.add(keyword);
+                categoryCounts.computeIfAbsent(id, k -> new int[PRIORITY_ORDER.length])[cat]++;
+                if (cat == SOCIETY && SOCIETY_HIGH_IMPACT_KEYWORDS.contains(keyword)) {
+                    flags.merge(id, FLAG_SOCIETY_HIGH_IMPACT, (a, b) -> a | b);
+                }
+            }
+        }
+        for (String keyword : MILITARY_RELAXED_KEYWORDS) {
+            flags.merge(builder.add(keyword), FLAG_RELAXED_MILITARY, (a, b) -> a | b);
+        }
+        for (String keyword : CULTURE_RELAXED_KEYWORDS) {
+            flags.merge(builder.add(keyword), FLAG_RELAXED_CULTURE, (a, b) -> a | b);
+        }
+        for (String keyword : CULTURE_CUE_KEYWORDS) {
+            flags.merge(builder.add(keyword), FLAG_CULTURE_CUE, (a, b) -> a | b);
+        }
+        KEYWORD_MATCHER = builder.build();
+        int keywordCount = KEYWORD_MATCHER.patternCount();
+        KEYWORD_CATEGORY_COUNTS = new int[keywordCount][];
+        KEYWORD_FLAGS = new int[keywordCount];
+        int[] noCategory = new int[PRIORITY_ORDER.length];
+        for (int id = 0; id < keywordCount; id++) {
+            KEYWORD_CATEGORY_COUNTS[id] = categoryCounts.getOrDefault(id, noCategory);
+            KEYWORD_FLAGS[id] = flags.getOrDefault(id, 0);
+        }
+        SCRATCH = ThreadLocal.withInitial(() -> new MatchScratch(keywordCount));
+    }
+
+    /**
+     * 单次标题扫描的结果：各分类命中的关键词数（每个关键词只计一次）和标记
+     */
+    private static final class MatchScratch implements AhoCorasickMatcher.MatchHandler {
+        private final int[] seen;
+        // 本次命中的关键词 id（按首次命中顺序），只用于调试日志
+        private final int[] hits;
+        private int hitCount;
+        private final int[] counts = new int[PRIORITY_ORDER.length];
+        private int generation;
+        private int flags;
+        // 关键词评分结果：最高加权分，以及是否退回到规则推断
+        private double score;
+        private boolean inferred;
+
+        private MatchScratch(int keywordCount) {
+            this.seen = new int[keywordCount];
+            this.hits = new int[keywordCount];
+        }
+
+        private void reset() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                generation = 1;
+            }
+            Arrays.fill(counts, 0);
+            hitCount = 0;
+            flags = 0;
+            score = 0;
+            inferred = false;
+        }
+
+        @Override
+        public void onMatch(int keywordId) {
+            // 与 title.contains(keyword) 一致：同一关键词出现多次只计一次
+            if (seen[keywordId] == generation) {
+                return;
+            }
+            seen[keywordId] = generation;
+            hits[hitCount++] = keywordId;
+            int[] categoryCounts = KEYWORD_CATEGORY_COUNTS[keywordId];
+            for (int cat = 0; cat < counts.length; cat++) {
+                counts[cat] += categoryCounts[cat];
+            }
+            flags |= KEYWORD_FLAGS[keywordId];
+        }
+
+        private boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+    }
+
+    // 分类结果缓存：标题核心词 -> 分类，按条目数和估算字节数双重限制，LRU 淘汰
+    private final BoundedLruCache<String, String> classificationCache;
+    private final LlmCategoryClassifier llmClassifier;
+    // 关键词得分达到该值才直接采用，否则交给大模型批量分类
+    private final double llmMinScore;
+
+    public CategoryClassificationServiceImpl(
+            LlmCategoryClassifier llmClassifier,
+            @Value("${hotsearch.classification.cache.max-entries:20000}") int cacheMaxEntries,
+            @Value("${hotsearch.classification.cache.max-bytes:4194304}") long cacheMaxBytes,
+            @Value("${hotsearch.classification.llm.min-score:1.6}") double llmMinScore) {
+        this.llmClassifier = llmClassifier;
+        this.classificationCache = new BoundedLruCache<>(cacheMaxEntries, cacheMaxBytes,
+                BoundedLruCache::estimateStringEntry);
+        this.llmMinScore = llmMinScore;
+    }
+
+    /**
+     * 两级分类：关键词得分足够确定的直接采用；其余按核心词去重后用一次大模型调用批量分类，
+     * 模型结果写入条目和缓存。
+     * 已发送但调用失败或模型没有给出结果的标题标为 evaluating，超出单批上限未发送的保持 pending，两者都不缓存，
+     * 由待分类队列之后重试，发送多次仍没有结果时队列改用 {@link #classifyTitleByKeywords} 的结果；
+     * 未配置大模型时关键词结果即最终结果
+     */
     @Override
     public List<HotSearchItem> classifyItems(List<HotSearchItem> items) {
-        logger.info("Start classification, total: {}", items.size());
+        return classify(items, true);
+    }
+
+    @Override
+    public List<HotSearchItem> classifyItemsByKeywords(List<HotSearchItem> items) {
+        return classify(items, false);
+    }
+
+    /**
+     * @param callLlm 为 false 时不确定的条目直接标为 pending，不发起大模型调用
+     */
+    private List<HotSearchItem> classify(List<HotSearchItem> items, boolean callLlm) {
+        logger.info("Start classification, total: {}, llm tier: {}", items.size(), callLlm);
+        boolean llmAvailable = llmClassifier.isAvailable();
         int classified = 0;
+        Map<String, Integer> ambiguousIndex = new HashMap<>();
+        List<String> ambiguousTitles = new ArrayList<>();
+        List<String> ambiguousKeys = new ArrayList<>();
+        List<HotSearchItem> ambiguousItems = new ArrayList<>();
+        List<Integer> ambiguousItemIndexes = new ArrayList<>();
         for (HotSearchItem item : items) {
             if (item.getCategory() == null || "pending".equals(item.getCategory()) || "other".equals(item.getCategory())) {
-                String category = classifyTitle(item.getTitle());
-                item.setCategory(category);
                 classified++;
+                String title = item.getTitle();
+                if (!llmAvailable || title == null || title.isEmpty()) {
+                    item.setCategory(classifyTitle(title));
+                    continue;
+                }
+                String coreWords = TitleCoreWords.extract(title);
+                String cachedCategory = classificationCache.get(coreWords);
+                if (cachedCategory != null) {
+                    item.setCategory(cachedCategory);
+                    continue;
+                }
+                MatchScratch match = SCRATCH.get();
+                String keywordCategory = classifyByKeywords(title, match);
+                if (!match.inferred && match.score >= llmMinScore) {
+                    item.setCategory(keywordCategory);
+                    classificationCache.put(coreWords, keywordCategory);
+                    continue;
+                }
+                // 关键词结果不够确定：等待大模型结果，拿不到结果时保持 pending
+                item.setCategory("pending");
+                if (callLlm && (ambiguousIndex.size() < llmClassifier.maxBatchSize() || ambiguousIndex.containsKey(coreWords))) {
+                    Integer index = ambiguousIndex.get(coreWords);
+                    if (index == null) {
+                        index = ambiguousTitles.size();
+                        ambiguousIndex.put(coreWords, index);
+                        ambiguousTitles.add(title);
+                        ambiguousKeys.add(coreWords);
+                    }
+                    ambiguousItems.add(item);
+                    ambiguousItemIndexes.add(index);
+                }
+            }
+        }
+        if (!ambiguousTitles.isEmpty()) {
+            Map<Integer, String> llmCategories = llmClassifier.classify(ambiguousTitles);
+            for (int i = 0; i < ambiguousItems.size(); i++) {
+                String category = llmCategories.get(ambiguousItemIndexes.get(i));
+                // 没有结果的标为 evaluating，与未发送的 pending 区分，队列据此计算尝试次数
+                ambiguousItems.get(i).setCategory(category != null ? category : "evaluating");
             }
+            llmCategories.forEach((index, category) -> classificationCache.put(ambiguousKeys.get(index), category));
+            logger.info("LLM tier: {} ambiguous titles sent, {} reclassified", ambiguousTitles.size(), llmCategories.size());
+        }
+        long deferred = items.stream()
+                .filter(item -> "pending".equals(item.getCategory()) || "evaluating".equals(item.getCategory()))
+                .count();
+        if (deferred > 0) {
+            logger.info("{} items left pending for retry", deferred);
         }
         logger.info("Classification completed: {}/{} items classified to defined categories", classified, items.size());
         return items;
@@ -175,87 +387,84 @@ public class CategoryClassificationServiceImpl implements CategoryClassification
         }
         
         // 1. 提取标题核心词（用于缓存复用）
-        String coreWords = extractCoreWords(title);
-        boolean cultureCueDetected = hasRelaxedCultureCue(title);
+        String coreWords = TitleCoreWords.extract(title);
         
         // 2. 检查缓存，相似标题直接复用
-        String cachedCategory = CLASSIFICATION_CACHE.get(coreWords);
+        String cachedCategory = classificationCache.get(coreWords);
         if (cachedCategory != null) {
             logger.debug("Cache hit for '{}': {}", title, cachedCategory);
             return cachedCategory;
         }
         
-        // 3. 使用增强的关键词匹配进行分类（加权评分机制）
-        // 按照优先级顺序匹配：军事、政治、科技、经济、体育、娱乐、文化、社会
+        // 3. 关键词评分
+        String category = classifyByKeywords(title, SCRATCH.get());
+        
+        // 4. 缓存结果供相似标题复用
+        classificationCache.put(coreWords, category);
+        
+        return category;
+    }
+
+    @Override
+    public String classifyTitleByKeywords(String title) {
+        if (title == null || title.isEmpty()) {
+            return "society";
+        }
+        // 兜底结果不够确定，不写缓存，相似标题之后仍会交给大模型
+        return classifyByKeywords(title, SCRATCH.get());
+    }
+
+    /**
+     * 关键词分类：得分和是否退回规则推断写入 match
+     */
+    private String classifyByKeywords(String title, MatchScratch match) {
+        // 使用增强的关键词匹配进行分类（加权评分机制）
+        // 一次扫描得到所有分类的命中数，再按优先级顺序评分：军事、政治、科技、经济、体育、娱乐、文化、社会
+        match.reset();
+        KEYWORD_MATCHER.match(title, match);
+        boolean cultureCueDetected = match.has(FLAG_CULTURE_CUE);
+        
         String category = null;
         double maxScore = 0;
         
-        // 定义优先级顺序和权重（严格分类，均衡分布）
-        String[] priorityOrder = {"military", "politics", "tech", "economy", "sports", "entertainment", "culture", "society"};
-        Map<String, Double> categoryWeights = new HashMap<>();
-        categoryWeights.put("military", 2.5);  // 军事最高优先级
-        categoryWeights.put("politics", 2.5);  // 政治最高优先级
-        categoryWeights.put("tech", 2.0);      // 科技高优先级
-        categoryWeights.put("economy", 1.8);   // 经济较高优先级
-        categoryWeights.put("sports", 1.6);    // 体育中等优先级
-        categoryWeights.put("entertainment", 1.6);  // 娱乐中等优先级
-        categoryWeights.put("culture", 2.0);   // 文化适当提升权重
-        categoryWeights.put("society", 0.7);   // 社会作为兜底，降低权重
-        
-        // 多关键词匹配机制：统计每个分类匹配到的关键词数量并计算加权分数
-        for (String cat : priorityOrder) {
-            String[] keywords = CATEGORY_KEYWORDS.get(cat);
-            if (keywords != null) {
-                int matchCount = 0;
-                StringBuilder matchedKeywords = new StringBuilder();
-                boolean matchedHighImpactSocietyKeyword = false;
-                
-                for (String keyword : keywords) {
-                    if (title.contains(keyword)) {
-                        matchCount++;
-                        if ("society".equals(cat) && SOCIETY_HIGH_IMPACT_KEYWORDS.contains(keyword)) {
-                            matchedHighImpactSocietyKeyword = true;
-                        }
-                        if (matchedKeywords.length() > 0) {
-                            matchedKeywords.append(", ");
-                        }
-                        matchedKeywords.append(keyword);
-                    }
-                }
-                
-                if ("society".equals(cat)) {
-                    // 社会类需要至少两个关键词或一个高影响关键词才算有效命中
-                    if (!matchedHighImpactSocietyKeyword && matchCount < 2) {
-                        logger.debug("Skip loose society classification for '{}': insufficient keywords", title);
-                        continue;
-                    }
+        // 多关键词匹配机制：按每个分类匹配到的关键词数量计算加权分数
+        for (int cat = 0; cat < PRIORITY_ORDER.length; cat++) {
+            int matchCount = match.counts[cat];
+            
+            if (cat == SOCIETY) {
+                // 社会类需要至少两个关键词或一个高影响关键词才算有效命中
+                if (!match.has(FLAG_SOCIETY_HIGH_IMPACT) && matchCount < 2) {
+                    logger.debug("Skip loose society classification for '{}': insufficient keywords", title);
+                    continue;
                 }
+            }
 
-                // 计算加权分数：匹配数量 * 分类权重
-                double score = matchCount * categoryWeights.getOrDefault(cat, 1.0);
+            // 计算加权分数：匹配数量 * 分类权重
+            double score = matchCount * CATEGORY_WEIGHTS[cat];
 
-                if ("culture".equals(cat) && matchCount > 0) {
-                    // 为文化类单次命中提供额外加分，避免被社会兜底抢走
-                    score += 0.5;
-                }
-                
-                // 如果当前分类得分更高，则选择该分类
-                if (score > maxScore) {
-                    maxScore = score;
-                    category = cat;
+            if (cat == CULTURE && matchCount > 0) {
+                // 为文化类单次命中提供额外加分，避免被社会兜底抢走
+                score += 0.5;
+            }
+            
+            // 如果当前分类得分更高，则选择该分类
+            if (score > maxScore) {
+                maxScore = score;
+                category = PRIORITY_ORDER[cat];
+                if (logger.isDebugEnabled()) {
                     logger.debug("Classified '{}' as '{}' (matched {} keywords, score: {}, keywords: {})", 
-                        title, category, matchCount, score, matchedKeywords.toString());
-                }
-                
-                // 如果已经匹配到3个以上关键词，且是最高优先级分类，直接返回
-                if (matchCount >= 3 && (cat.equals("military") || cat.equals("politics"))) {
-                    break;
-                }
-                // 如果已经匹配到2个以上关键词，且是高优先级分类，直接返回
-                if (matchCount >= 2 && (cat.equals("tech") || cat.equals("economy"))) {
-                    break;
+                        title, category, matchCount, score, matchedKeywords(match, cat));
                 }
             }
+            
+            // 如果已经匹配到3个以上关键词，且是最高优先级分类，直接返回
+            if (matchCount >= 3 && (cat == MILITARY || cat == POLITICS)) {
+                break;
+            }
+            // 如果已经匹配到2个以上关键词，且是高优先级分类，直接返回
+            if (matchCount >= 2 && (cat == TECH || cat == ECONOMY)) {
+                break;
+            }
         }
         
         if ("society".equals(category) && (maxScore < 1.8 && cultureCueDetected)) {
@@ -263,16 +472,19 @@ public class CategoryClassificationServiceImpl implements CategoryClassification
             category = "culture";
         }
 
-        // 4. 如果没有匹配到任何关键词，使用严格的智能推断
+        match.score = maxScore;
+
+        // 如果没有匹配到任何关键词，使用严格的智能推断
         if (category == null || maxScore < 0.8) {
+            match.inferred = true;
             // 根据标题特征进行严格推断
-            if (matchesRelaxedMilitaryKeyword(title)) {
+            if (match.has(FLAG_RELAXED_MILITARY)) {
                 category = "military";
                 logger.debug("Relaxed military rule applied for '{}'", title);
-            } else if (cultureCueDetected || matchesRelaxedCultureKeyword(title)) {
+            } else if (cultureCueDetected || match.has(FLAG_RELAXED_CULTURE)) {
                 category = "culture";
                 logger.debug("Relaxed culture rule applied for '{}'", title);
-            } else if (title.matches(".*[0-9]+.*") && title.length() < 15) {
+            } else if (title.length() < 15 && containsDigit(title)) {
                 // 短标题且包含数字，更可能是科技或经济类
                 category = "tech";
                 logger.debug("Numeric short title '{}' inferred as 'tech'", title);
@@ -287,45 +499,45 @@ public class CategoryClassificationServiceImpl implements CategoryClassification
             }
         }
         
-        // 5. 缓存结果供相似标题复用
-        CLASSIFICATION_CACHE.put(coreWords, category);
-        
         return category;
     }
     
+    @Override
+    public BoundedLruCache.Stats cacheStats() {
+        return classificationCache.stats();
+    }
+    
     /**
-     * 提取标题核心词，用于缓存key
-     * 去除数字、标点等，保留主要关键词
+     * 与 title.matches(".*[0-9]+.*") 等价：包含 ASCII 数字且不含行终止符（. 不匹配行终止符）
      */
-    private String extractCoreWords(String title) {
-        // 移除数字、标点、空格
-        String core = title.replaceAll("[0-9\\s\\p{Punct}]", "");
-        // 如果太长，只取前20个字符（增加缓存精度）
-        if (core.length() > 20) {
-            core = core.substring(0, 20);
-        }
-        return core;
-    }
-
-    private boolean hasRelaxedCultureCue(String title) {
-        return CULTURE_RELAXED_PATTERN.matcher(title).find();
-    }
-
-    private boolean matchesRelaxedMilitaryKeyword(String title) {
-        for (String keyword : MILITARY_RELAXED_KEYWORDS) {
-            if (title.contains(keyword)) {
-                return true;
+    private static boolean containsDigit(String title) {
+        boolean digit = false;
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+            if (c >= '0' && c <= '9') {
+                digit = true;
             }
         }
-        return false;
+        return digit;
     }
 
-    private boolean matchesRelaxedCultureKeyword(String title) {
-        for (String keyword : CULTURE_RELAXED_KEYWORDS) {
-            if (title.contains(keyword)) {
-                return true;
+    /**
+     * 调试日志用：列出本次扫描中属于该分类的关键词，只遍历已命中的关键词
+     */
+    private static String matchedKeywords(MatchScratch match, int cat) {
+        StringBuilder matchedKeywords = new StringBuilder();
+        for (int i = 0; i < match.hitCount; i++) {
+            int keywordId = match.hits[i];
+            if (KEYWORD_CATEGORY_COUNTS[keywordId][cat] > 0) {
+                if (matchedKeywords.length() > 0) {
+                    matchedKeywords.append(", ");
+                }
+                matchedKeywords.append(KEYWORD_MATCHER.pattern(keywordId));
             }
         }
-        return false;
+        return matchedKeywords.toString();
     }
 }
@@ -1,58 +1,524 @@
 package org.xiaobuding.hotsearchaiplatform.service.impl;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.stereotype.Service;
 import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
 import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
 import org.xiaobuding.hotsearchaiplatform.service.HotSearchCacheService;
+import org.xiaobuding.hotsearchaiplatform.service.HotSearchKeyspace;
+import org.xiaobuding.hotsearchaiplatform.service.RefreshFence;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 热搜两级缓存
+ * L1 为进程内的不可变列表快照，L2 为 Redis（列表按 HotSearchSnapshotCodec 二进制编码存放）。读先查 L1，未命中再读 Redis 并回填 L1；
+ * 本节点写入时同时更新 L1，并通过 Redis 频道通知其他节点丢弃对应的 L1 条目。
+ * 频道消息丢失时，L1 条目最多在 near-ttl 后过期。
+ * 每个键另有一个只增不减的数据版本（<键>:version），列表写入或修补后递增，用于绑定响应快照和更新推送；
+ * 版本键不过期，首次创建时以当前毫秒时间为起点，清空后重建的版本仍大于之前的版本。
+ * Redis 中的键都位于 {@link HotSearchKeyspace} 的当前命名空间下，L1 和失效消息使用不带命名空间的逻辑键名；
+ * 清空全部缓存只切换命名空间，旧键由后台回收。
+ * 列表在 Redis 中保留 hard-ttl；写入超过 soft-ttl 后视为陈旧，仍照常返回，由调用方安排后台刷新。
+ * 写入时间由剩余过期时间推算（已存在时间 = hard-ttl - PTTL），续期即视为重新写入。
+ * 平台列表另外维护逐条索引（{@link HotSearchItemIndex}），按分类或前 N 条读取时只取需要的条目
+ */
 @Service
-public class HotSearchCacheServiceImpl implements HotSearchCacheService {
-    private static final long CACHE_TTL_MINUTES = 10;
-    
-    private final RedisTemplate<String, Object> redisTemplate;
+public class HotSearchCacheServiceImpl implements HotSearchCacheService, MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(HotSearchCacheServiceImpl.class);
+    // 修补时键被并发改写（采集刷新）的最大重试次数
+    private static final int MAX_PATCH_ATTEMPTS = 3;
+    private static final String ALL_KEY = "hotsearch:all";
+    private static final String PLATFORM_KEY_PREFIX = "hotsearch:platform:";
+    private static final String LOGICAL_PREFIX = "hotsearch:";
+    private static final String VERSION_KEY_SUFFIX = ":version";
+    // 每个键已写入过的最大刷新令牌
+    private static final String FENCE_KEY_SUFFIX = ":fence";
+    // 令牌不小于已记录的最大令牌时才写入
+    private static final DefaultRedisScript<Long> FENCED_SET_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[2]) or '0') "
+                    + "if tonumber(ARGV[1]) < current then return 0 end "
+                    + "redis.call('SET', KEYS[2], ARGV[1]) "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+                    + "return 1",
+            Long.class);
+    private static final String INVALIDATION_CHANNEL = "hotsearch:cache:invalidate";
+    // 失效消息中表示全部 L1 条目
+    private static final String ALL_ENTRIES = "*";
 
-    public HotSearchCacheServiceImpl(RedisTemplate<String, Object> redisTemplate) {
+    /**
+     * L1 条目：列表和条目只属于缓存，写入时深拷贝，调用方拿到后只读
+     *
+     * @param staleAt 列表超过软过期时间的时刻
+     */
+    private record NearEntry(List<HotSearchItem> items, long version, long expiresAt, long staleAt) {
+    }
+
+    private final RedisTemplate<String, List<HotSearchItem>> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final HotSearchKeyspace keyspace;
+    private final HotSearchItemIndex itemIndex;
+    private final boolean nearEnabled;
+    private final long nearTtlMs;
+    private final long softTtlMs;
+    private final long hardTtlMs;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, NearEntry> nearCache = new ConcurrentHashMap<>();
+    // 每次失效加一；回填前后对比，避免把失效期间读到的旧值放回 L1
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public HotSearchCacheServiceImpl(RedisTemplate<String, List<HotSearchItem>> redisTemplate,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     HotSearchKeyspace keyspace,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     @Value("${hotsearch.cache.near.enabled:true}") boolean nearEnabled,
+                                     @Value("${hotsearch.cache.near.ttl-ms:30000}") long nearTtlMs,
+                                     @Value("${hotsearch.cache.soft-ttl-ms:60000}") long softTtlMs,
+                                     @Value("${hotsearch.cache.hard-ttl-ms:1800000}") long hardTtlMs) {
         this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.keyspace = keyspace;
+        this.itemIndex = new HotSearchItemIndex(stringRedisTemplate, keyspace);
+        this.nearEnabled = nearEnabled;
+        this.nearTtlMs = nearTtlMs;
+        this.softTtlMs = Math.min(softTtlMs, hardTtlMs);
+        this.hardTtlMs = hardTtlMs;
+        if (nearEnabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+        }
     }
 
     @Override
     public void cacheAll(List<HotSearchItem> items) {
-        redisTemplate.opsForValue().set("hotsearch:all", items, CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        write(ALL_KEY, null, items);
     }
 
     @Override
     public void cachePlatform(PlatformType platform, List<HotSearchItem> items) {
-        redisTemplate.opsForValue().set("hotsearch:platform:" + platform, items, CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        write(PLATFORM_KEY_PREFIX + platform, platform, items);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public List<HotSearchItem> getAllCached() {
-        Object cached = redisTemplate.opsForValue().get("hotsearch:all");
-        return cached instanceof List ? (List<HotSearchItem>) cached : null;
+        return read(ALL_KEY);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public List<HotSearchItem> getPlatformCached(PlatformType platform) {
-        Object cached = redisTemplate.opsForValue().get("hotsearch:platform:" + platform);
-        return cached instanceof List ? (List<HotSearchItem>) cached : null;
+        return read(PLATFORM_KEY_PREFIX + platform);
     }
 
     @Override
-    public void clearAll() {
-        redisTemplate.delete("hotsearch:all");
-        for (PlatformType platform : PlatformType.values()) {
-            redisTemplate.delete("hotsearch:platform:" + platform);
+    public List<HotSearchItem> getPlatformRange(PlatformType platform, String category, int limit) {
+        if (nearEnabled) {
+            NearEntry entry = nearCache.get(PLATFORM_KEY_PREFIX + platform);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                // 整表已在本进程内，不必再访问 Redis；先按索引的规则过滤去重，再截取前 N 条
+                return HotSearchItemIndex.listable(entry.items()).stream()
+                        .filter(item -> category == null || category.isEmpty()
+                                || category.equals(HotSearchItemIndex.category(item.getCategory())))
+                        .sorted(Comparator.comparing(HotSearchItem::getRank, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                        .toList();
+            }
         }
+        try {
+            return itemIndex.range(platform, category, limit);
+        } catch (Exception e) {
+            logger.warn("读取 {} 逐条索引失败: {}", platform, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isAllStale() {
+        return isStale(ALL_KEY);
+    }
+
+    @Override
+    public boolean isPlatformStale(PlatformType platform) {
+        return isStale(PLATFORM_KEY_PREFIX + platform);
     }
-    
+
+    @Override
+    public long getAllVersion() {
+        return version(ALL_KEY);
+    }
+
+    @Override
+    public long getPlatformVersion(PlatformType platform) {
+        return version(PLATFORM_KEY_PREFIX + platform);
+    }
+
+    @Override
+    public void clearAll() {
+        // 切换到新的空命名空间，列表、索引、版本和令牌键一起失效；旧键在后台分批回收
+        long generation = keyspace.advance();
+        logger.info("热搜缓存已切换到命名空间 {}", generation);
+        invalidate(ALL_ENTRIES);
+    }
+
     @Override
     public void clearPlatformCache(PlatformType platform) {
-        redisTemplate.delete("hotsearch:platform:" + platform);
+        redisTemplate.unlink(redisKey(PLATFORM_KEY_PREFIX + platform));
+        itemIndex.delete(platform);
+        invalidate(PLATFORM_KEY_PREFIX + platform);
+    }
+
+    @Override
+    public boolean touchPlatform(PlatformType platform) {
+        String key = PLATFORM_KEY_PREFIX + platform;
+        if (!Boolean.TRUE.equals(redisTemplate.expire(redisKey(key), hardTtlMs, TimeUnit.MILLISECONDS))) {
+            return false;
+        }
+        try {
+            itemIndex.expire(platform, hardTtlMs);
+        } catch (Exception e) {
+            logger.warn("续期 {} 逐条索引失败: {}", platform, e.getMessage());
+        }
+        if (nearEnabled) {
+            // 列表没变，本节点只刷新软过期时间，保留快照实例；其他节点丢弃 L1 后按新的剩余时间重新计算
+            long now = System.currentTimeMillis();
+            nearCache.computeIfPresent(key, (k, entry) ->
+                    new NearEntry(entry.items(), entry.version(), now + nearTtlMs, now + softTtlMs));
+            publishInvalidation(key);
+        }
+        return true;
+    }
+
+    @Override
+    public int patchCategories(Collection<PlatformType> platforms, Map<Long, String> categories) {
+        if (categories.isEmpty()) {
+            return 0;
+        }
+        int patched = 0;
+        for (PlatformType platform : platforms) {
+            boolean snapshotPatched = patchKey(PLATFORM_KEY_PREFIX + platform, categories);
+            if (patchIndex(platform, categories) || snapshotPatched) {
+                bumpVersion(PLATFORM_KEY_PREFIX + platform);
+                invalidate(PLATFORM_KEY_PREFIX + platform);
+                patched++;
+            }
+        }
+        if (patchKey(ALL_KEY, categories)) {
+            bumpVersion(ALL_KEY);
+            invalidate(ALL_KEY);
+            patched++;
+        }
+        return patched;
+    }
+
+    /**
+     * WATCH 键后读取、修改并在 MULTI/EXEC 中按剩余过期时间写回；
+     * 期间键被其他写入改动时 EXEC 放弃，重新读取最新列表再修补，不会覆盖新一轮采集的数据
+     */
+    private boolean patchKey(String logicalKey, Map<Long, String> categories) {
+        String key = redisKey(logicalKey);
+        for (int attempt = 0; attempt < MAX_PATCH_ATTEMPTS; attempt++) {
+            Boolean result;
+            try {
+                result = redisTemplate.execute(new SessionCallback<Boolean>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Boolean execute(RedisOperations<K, V> operations) throws DataAccessException {
+                        RedisOperations<String, List<HotSearchItem>> ops = (RedisOperations<String, List<HotSearchItem>>) operations;
+                        ops.watch(key);
+                        List<HotSearchItem> cached = ops.opsForValue().get(key);
+                        Long ttlMs = ops.getExpire(key, TimeUnit.MILLISECONDS);
+                        if (cached == null || ttlMs == null || ttlMs == -2
+                                || !applyCategories(cached, categories)) {
+                            ops.unwatch();
+                            return Boolean.FALSE;
+                        }
+                        ops.multi();
+                        if (ttlMs > 0) {
+                            ops.opsForValue().set(key, cached, ttlMs, TimeUnit.MILLISECONDS);
+                        } else {
+                            ops.opsForValue().set(key, cached);
+                        }
+                        List<Object> results = ops.exec();
+                        return results == null || results.isEmpty() ? null : Boolean.TRUE;
+                    }
+                });
+            } catch (Exception e) {
+                logger.warn("修补缓存分类失败: key={}, {}", key, e.getMessage());
+                return false;
+            }
+            if (result != null) {
+                return result;
+            }
+        }
+        logger.warn("修补缓存分类放弃: key={} 连续 {} 次被并发改写", key, MAX_PATCH_ATTEMPTS);
+        return false;
+    }
+
+    private boolean patchIndex(PlatformType platform, Map<Long, String> categories) {
+        try {
+            return itemIndex.patchCategories(platform, categories) > 0;
+        } catch (Exception e) {
+            logger.warn("修补 {} 逐条索引分类失败: {}", platform, e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean applyCategories(List<HotSearchItem> cached, Map<Long, String> categories) {
+        boolean changed = false;
+        for (HotSearchItem item : cached) {
+            String category = item.getId() == null ? null : categories.get(item.getId());
+            if (category != null && !category.equals(item.getCategory())) {
+                item.setCategory(category);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 收到其他节点的失效通知，丢弃对应的 L1 条目；忽略本节点发出的消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        evictNear(body.substring(separator + 1));
+    }
+
+    private List<HotSearchItem> read(String key) {
+        if (!nearEnabled) {
+            return get(key);
+        }
+        NearEntry entry = nearCache.get(key);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return entry.items();
+        }
+        long generation = invalidations.get();
+        // 先读版本再读列表：并发写入时版本只会比列表旧，按版本绑定的快照最多多生成一次，不会把旧列表标成新版本
+        long version = readVersion(key);
+        List<HotSearchItem> cached = get(key);
+        if (cached == null) {
+            return null;
+        }
+        // 刚从 Redis 解码的列表没有其他持有者，直接作为 L1 快照
+        List<HotSearchItem> snapshot = Collections.unmodifiableList(cached);
+        long now = System.currentTimeMillis();
+        long remaining = remainingTtl(key);
+        NearEntry loaded = new NearEntry(snapshot, version,
+                now + (remaining > 0 ? Math.min(nearTtlMs, remaining) : nearTtlMs), now + freshFor(remaining));
+        nearCache.put(key, loaded);
+        if (invalidations.get() != generation) {
+            // 读取期间有失效，读到的可能是旧值，只返回不保留
+            nearCache.remove(key, loaded);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 读取 Redis 中的列表；无法解码的值（如升级前以 JSON 写入的）按未命中处理，下一次写入时覆盖
+     */
+    private List<HotSearchItem> get(String key) {
+        try {
+            return redisTemplate.opsForValue().get(redisKey(key));
+        } catch (SerializationException e) {
+            logger.debug("缓存 {} 无法解码，按未命中处理: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param platform 平台列表同时重建逐条索引，全平台列表传 null
+     */
+    private void write(String key, PlatformType platform, List<HotSearchItem> items) {
+        RefreshFence.Token fence = RefreshFence.current();
+        if (fence != null && key.equals(LOGICAL_PREFIX + fence.resource())) {
+            if (!fencedSet(key, items, fence.token())) {
+                logger.warn("刷新令牌 {} 已被更新的令牌取代，放弃写入 {}", fence.token(), key);
+                return;
+            }
+        } else {
+            redisTemplate.opsForValue().set(redisKey(key), items, hardTtlMs, TimeUnit.MILLISECONDS);
+        }
+        if (platform != null) {
+            // 索引先于版本写入：读到新版本时索引一定已是新数据
+            try {
+                itemIndex.replace(platform, items, hardTtlMs);
+            } catch (Exception e) {
+                logger.warn("重建 {} 逐条索引失败，按分类读取将回退到整表: {}", platform, e.getMessage());
+                try {
+                    itemIndex.delete(platform);
+                } catch (Exception ignored) {
+                    // Redis 不可用时旧索引随过期时间失效
+                }
+            }
+        }
+        long version = bumpVersion(key);
+        if (!nearEnabled) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        long now = System.currentTimeMillis();
+        // 调用方之后还会修改自己的条目（如刷新抓取时间），L1 保存独立的副本
+        nearCache.put(key, new NearEntry(copyOf(items), version, now + nearTtlMs, now + softTtlMs));
+        publishInvalidation(key);
+    }
+
+    private static List<HotSearchItem> copyOf(List<HotSearchItem> items) {
+        List<HotSearchItem> copies = new ArrayList<>(items.size());
+        for (HotSearchItem item : items) {
+            copies.add(item.copy());
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean fencedSet(String key, List<HotSearchItem> items, long token) {
+        byte[] value = ((RedisSerializer<List<HotSearchItem>>) redisTemplate.getValueSerializer()).serialize(items);
+        // 两个键只取一次命名空间，且带同一 hash tag，集群下位于同一槽位
+        String redisKey = redisKey(key);
+        Long result = redisTemplate.execute(FENCED_SET_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(redisKey, redisKey + FENCE_KEY_SUFFIX),
+                String.valueOf(token).getBytes(StandardCharsets.UTF_8), value,
+                String.valueOf(hardTtlMs).getBytes(StandardCharsets.UTF_8));
+        return result != null && result == 1;
+    }
+
+    /**
+     * 列表存在且已超过软过期时间
+     */
+    private boolean isStale(String key) {
+        if (nearEnabled) {
+            NearEntry entry = nearCache.get(key);
+            if (entry == null || entry.expiresAt() <= System.currentTimeMillis()) {
+                read(key);
+                entry = nearCache.get(key);
+            }
+            if (entry != null) {
+                return entry.staleAt() <= System.currentTimeMillis();
+            }
+        }
+        long remaining = remainingTtl(key);
+        return remaining > 0 && freshFor(remaining) == 0;
+    }
+
+    /**
+     * 键的剩余过期时间（毫秒），键不存在或没有过期时间时返回负数
+     */
+    private long remainingTtl(String key) {
+        Long ttl = redisTemplate.getExpire(redisKey(key), TimeUnit.MILLISECONDS);
+        return ttl == null ? -1 : ttl;
+    }
+
+    /**
+     * 由剩余过期时间推算距离软过期还有多久；没有过期时间的键（旧版本写入或手工写入）按刚写入处理
+     */
+    private long freshFor(long remainingTtl) {
+        if (remainingTtl < 0) {
+            return softTtlMs;
+        }
+        return Math.max(0, remainingTtl - (hardTtlMs - softTtlMs));
+    }
+
+    /**
+     * 当前 L1 快照对应的版本；没有缓存列表时直接读版本键
+     */
+    private long version(String key) {
+        if (nearEnabled) {
+            NearEntry entry = nearCache.get(key);
+            if (entry == null || entry.expiresAt() <= System.currentTimeMillis()) {
+                read(key);
+                entry = nearCache.get(key);
+            }
+            if (entry != null) {
+                return entry.version();
+            }
+        }
+        return readVersion(key);
+    }
+
+    private long readVersion(String key) {
+        String value = stringRedisTemplate.opsForValue().get(versionKey(key));
+        try {
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private long bumpVersion(String key) {
+        String versionKey = versionKey(key);
+        stringRedisTemplate.opsForValue().setIfAbsent(versionKey, String.valueOf(System.currentTimeMillis()));
+        Long version = stringRedisTemplate.opsForValue().increment(versionKey);
+        return version == null ? 0 : version;
+    }
+
+    private String versionKey(String key) {
+        return redisKey(key) + VERSION_KEY_SUFFIX;
+    }
+
+    /**
+     * 逻辑键名在当前命名空间下的 Redis 键名
+     */
+    private String redisKey(String key) {
+        return keyspace.key(suffix(key));
+    }
+
+    /**
+     * 去掉 "hotsearch:" 前缀的键名，与刷新资源名一致（如 platform:WEIBO、all）
+     */
+    private static String suffix(String key) {
+        return key.substring(LOGICAL_PREFIX.length());
+    }
+
+    private void invalidate(String key) {
+        if (!nearEnabled) {
+            return;
+        }
+        evictNear(key);
+        publishInvalidation(key);
+    }
+
+    private void evictNear(String key) {
+        invalidations.incrementAndGet();
+        if (ALL_ENTRIES.equals(key)) {
+            nearCache.clear();
+        } else {
+            nearCache.remove(key);
+        }
+    }
+
+    private void publishInvalidation(String key) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + "|" + key);
+        } catch (Exception e) {
+            logger.warn("发布缓存失效通知失败: key={}, {}", key, e.getMessage());
+        }
     }
 }
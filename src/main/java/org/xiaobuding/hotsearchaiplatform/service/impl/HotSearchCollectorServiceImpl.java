@@ -1,35 +1,123 @@
 package org.xiaobuding.hotsearchaiplatform.service.impl;
 import org.slf4j.*;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.xiaobuding.hotsearchaiplatform.exception.UpstreamNotModifiedException;
 import org.xiaobuding.hotsearchaiplatform.model.*;
 import org.xiaobuding.hotsearchaiplatform.service.*;
+import org.xiaobuding.hotsearchaiplatform.service.platform.HotSearchSourceRegistry;
 import org.xiaobuding.hotsearchaiplatform.service.platform.ThirdPartyHotSearchService;
 import java.util.*;
+import java.util.concurrent.*;
 @Service
 public class HotSearchCollectorServiceImpl implements HotSearchCollectorService {
     private static final Logger LOG = LoggerFactory.getLogger(HotSearchCollectorServiceImpl.class);
     private final ThirdPartyHotSearchService thirdPartyService;
-    public HotSearchCollectorServiceImpl(ThirdPartyHotSearchService thirdPartyService) {
+    private final HotSearchSourceRegistry sourceRegistry;
+    private final PlatformHealthService platformHealthService;
+    private final Executor executor;
+    private final long platformTimeoutMs;
+    private final long globalTimeoutMs;
+    public HotSearchCollectorServiceImpl(ThirdPartyHotSearchService thirdPartyService,
+                                         HotSearchSourceRegistry sourceRegistry,
+                                         PlatformHealthService platformHealthService,
+                                         @Qualifier("hotSearchExecutor") Executor executor,
+                                         @Value("${hotsearch.collect.platform-timeout-ms:20000}") long platformTimeoutMs,
+                                         @Value("${hotsearch.collect.global-timeout-ms:25000}") long globalTimeoutMs) {
         this.thirdPartyService = thirdPartyService;
+        this.sourceRegistry = sourceRegistry;
+        this.platformHealthService = platformHealthService;
+        this.executor = executor;
+        this.platformTimeoutMs = platformTimeoutMs;
+        this.globalTimeoutMs = globalTimeoutMs;
     }
+    /**
+     * 并发采集数据源注册表中的所有平台：每个平台独立的截止时间（可按平台配置预算）+ 全局截止时间
+     * 到达全局截止时间后直接返回已完成平台的数据，总耗时取决于最慢的平台而不是各平台之和。
+     * 任务以 FutureTask 提交，超过截止时间的平台 cancel(true) 会中断采集线程：
+     * 对冲请求随之取消在途的数据源请求并中断 HTTP 调用，不会继续占用 hotSearchExecutor 的线程
+     */
     @Override
     public List<HotSearchItem> collectAll(boolean forceRefresh) {
-        LOG.info("Collect all platform data");
+        LOG.info("Collect all platform data concurrently");
+        long startTime = System.currentTimeMillis();
+        Map<PlatformType, FutureTask<List<HotSearchItem>>> tasks = new EnumMap<>(PlatformType.class);
+        List<PlatformType> platforms = sourceRegistry.platforms();
+        for (PlatformType platform : platforms) {
+            FutureTask<List<HotSearchItem>> task = new FutureTask<>(() -> collectByPlatform(platform, forceRefresh));
+            try {
+                executor.execute(task);
+                tasks.put(platform, task);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Collect {} rejected by executor, skipped", platform);
+            }
+        }
+        long globalDeadline = startTime + globalTimeoutMs;
         List<HotSearchItem> allItems = new ArrayList<>();
-        allItems.addAll(collectByPlatform(PlatformType.WEIBO, forceRefresh));
-        allItems.addAll(collectByPlatform(PlatformType.TOUTIAO, forceRefresh));
-        allItems.addAll(collectByPlatform(PlatformType.BILIBILI, forceRefresh));
-        allItems.addAll(collectByPlatform(PlatformType.DOUYIN, forceRefresh));
+        for (PlatformType platform : platforms) {
+            FutureTask<List<HotSearchItem>> task = tasks.get(platform);
+            if (task == null) {
+                continue;
+            }
+            long budgetMs = sourceRegistry.budgetMs(platform, platformTimeoutMs);
+            long deadline = Math.min(startTime + budgetMs, globalDeadline);
+            try {
+                allItems.addAll(task.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                task.cancel(true);
+                if (deadline == globalDeadline) {
+                    LOG.warn("Collect {} still running at global deadline {}ms, interrupted", platform, globalTimeoutMs);
+                } else {
+                    LOG.warn("Collect {} exceeded platform deadline {}ms, interrupted", platform, budgetMs);
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                LOG.error("Collect {} failed: {}", platform, cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("Collect all interrupted, returning partial results");
+                tasks.values().forEach(remaining -> remaining.cancel(true));
+                break;
+            }
+        }
+        LOG.info("Collected {} items from all platforms in {}ms", allItems.size(), System.currentTimeMillis() - startTime);
         return allItems;
     }
+    /**
+     * 无条件请求上游，不记录 ETag / Last-Modified：
+     * 这里的结果不一定入库（AI 分析只读取），校验器若在此更新，入库路径的下一次条件请求会得到 304，
+     * 把库里的旧榜单当作最新内容
+     */
     @Override
     public List<HotSearchItem> collectByPlatform(PlatformType platform, boolean forceRefresh) {
         LOG.info("Collect platform data: {}", platform);
-        return switch (platform) {
-            case WEIBO -> thirdPartyService.fetchWeiboHotSearch();
-            case TOUTIAO -> thirdPartyService.fetchToutiaoHotSearch();
-            case BILIBILI -> thirdPartyService.fetchBilibiliHotSearch();
-            case DOUYIN -> thirdPartyService.fetchDouyinHotSearch();
-        };
+        List<HotSearchItem> items = thirdPartyService.fetchHotSearch(platform, false);
+        // 所有数据源都没有返回数据时计一次平台失败，任一数据源成功则清零
+        recordHealth(platform, !items.isEmpty());
+        return items;
+    }
+    @Override
+    public List<HotSearchItem> collectIfModified(PlatformType platform) {
+        try {
+            List<HotSearchItem> items = thirdPartyService.fetchHotSearch(platform, true);
+            recordHealth(platform, !items.isEmpty());
+            return items;
+        } catch (UpstreamNotModifiedException e) {
+            // 304 说明上游可用
+            recordHealth(platform, true);
+            throw e;
+        }
+    }
+    private void recordHealth(PlatformType platform, boolean healthy) {
+        try {
+            if (healthy) {
+                platformHealthService.clearFailure(platform);
+            } else {
+                platformHealthService.recordFailure(platform);
+            }
+        } catch (Exception e) {
+            LOG.warn("Record {} health failed: {}", platform, e.getMessage());
+        }
     }
 }
@@ -0,0 +1,245 @@
+package org.xiaobuding.hotsearchaiplatform.service.impl;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.service.HotSearchKeyspace;
+import org.xiaobuding.hotsearchaiplatform.util.DataDeduplicationUtil;
+import org.xiaobuding.hotsearchaiplatform.util.HotSearchSnapshotCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 平台热搜的逐条索引，与整表快照同时维护
+ * 每个平台一组三个键（位于 {@link HotSearchKeyspace} 的当前命名空间下，与平台列表同一 hash tag，集群下落在同一槽位）：
+ * items 哈希（条目键 -> 单条编码）、rank 有序集合（按排名）、categories 哈希（条目键 -> 分类）。
+ * 脚本只访问这三个在 KEYS 中声明的键；按分类读取时在脚本内按排名扫描 categories，单个平台只有几十条，代价可以忽略。
+ * 写入索引前按接口返回的规则去掉降级条目并按标题去重，按前 N 条读取时过滤不会再让结果少于 N 条。
+ * 按分类或前 N 条读取时只传输需要的条目，修改单条分类只改写该条
+ */
+final class HotSearchItemIndex {
+    // 未分类的条目归入 pending，与接口返回时补全的分类一致
+    static final String PENDING = "pending";
+    // 接口返回时会被过滤掉的分类
+    private static final String DEGRADED = "degraded";
+
+    private static final DefaultRedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1], KEYS[2], KEYS[3]) "
+                    + "for i = 2, #ARGV, 4 do "
+                    + "  redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 3]) "
+                    + "  redis.call('ZADD', KEYS[2], ARGV[i + 1], ARGV[i]) "
+                    + "  redis.call('HSET', KEYS[3], ARGV[i], ARGV[i + 2]) "
+                    + "end "
+                    + "for i = 1, 3 do redis.call('PEXPIRE', KEYS[i], ARGV[1]) end "
+                    + "return (#ARGV - 1) / 4",
+            Long.class);
+    // 返回 {是否存在, 条目编码...}；ARGV[1] 为分类（空串表示全部），ARGV[2] 为条数上限（不大于 0 表示全部）
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> RANGE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {0} end "
+                    + "local limit = tonumber(ARGV[2]) "
+                    + "local fields "
+                    + "if ARGV[1] == '' then "
+                    + "  fields = redis.call('ZRANGE', KEYS[2], 0, limit > 0 and limit - 1 or -1) "
+                    + "else "
+                    + "  local all = redis.call('ZRANGE', KEYS[2], 0, -1) "
+                    + "  fields = {} "
+                    + "  if #all > 0 then "
+                    + "    local categories = redis.call('HMGET', KEYS[3], unpack(all)) "
+                    + "    for i, field in ipairs(all) do "
+                    + "      if categories[i] == ARGV[1] then "
+                    + "        table.insert(fields, field) "
+                    + "        if limit > 0 and #fields >= limit then break end "
+                    + "      end "
+                    + "    end "
+                    + "  end "
+                    + "end "
+                    + "local result = {1} "
+                    + "if #fields == 0 then return result end "
+                    + "for _, v in ipairs(redis.call('HMGET', KEYS[1], unpack(fields))) do table.insert(result, v) end "
+                    + "return result",
+            List.class);
+    // 条目编码仍是读取时的值才改写，避免覆盖期间整组替换写入的新数据
+    private static final DefaultRedisScript<Long> PATCH_SCRIPT = new DefaultRedisScript<>(
+            "local patched = 0 "
+                    + "for i = 1, #ARGV, 4 do "
+                    + "  local field = ARGV[i] "
+                    + "  if redis.call('HEXISTS', KEYS[3], field) == 1 and redis.call('ZSCORE', KEYS[2], field) "
+                    + "      and redis.call('HGET', KEYS[1], field) == ARGV[i + 2] then "
+                    + "    redis.call('HSET', KEYS[3], field, ARGV[i + 1]) "
+                    + "    redis.call('HSET', KEYS[1], field, ARGV[i + 3]) "
+                    + "    patched = patched + 1 "
+                    + "  end "
+                    + "end "
+                    + "return patched",
+            Long.class);
+    private static final DefaultRedisScript<Long> EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('PEXPIRE', KEYS[1], ARGV[1]) == 0 then return 0 end "
+                    + "redis.call('PEXPIRE', KEYS[2], ARGV[1]) "
+                    + "redis.call('PEXPIRE', KEYS[3], ARGV[1]) "
+                    + "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final HotSearchKeyspace keyspace;
+
+    HotSearchItemIndex(StringRedisTemplate redisTemplate, HotSearchKeyspace keyspace) {
+        this.redisTemplate = redisTemplate;
+        this.keyspace = keyspace;
+    }
+
+    /**
+     * 用新列表整组替换平台索引；空列表即删除索引
+     */
+    void replace(PlatformType platform, List<HotSearchItem> items, long ttlMs) {
+        List<HotSearchItem> listed = listable(items);
+        List<byte[]> args = new ArrayList<>(1 + listed.size() * 4);
+        args.add(bytes(String.valueOf(ttlMs)));
+        for (HotSearchItem item : listed) {
+            args.add(bytes(field(item)));
+            args.add(bytes(String.valueOf(item.getRank() != null ? item.getRank() : Integer.MAX_VALUE)));
+            args.add(bytes(category(item.getCategory())));
+            args.add(HotSearchSnapshotCodec.encode(List.of(item)));
+        }
+        redisTemplate.execute(REPLACE_SCRIPT, RedisSerializer.byteArray(), longResult(), keys(base(platform)), args.toArray());
+    }
+
+    /**
+     * 接口最终会返回的条目：去掉降级条目（全部是降级条目时保留原列表），再按标题去重保留热度最高的一条，
+     * 与 {@link org.xiaobuding.hotsearchaiplatform.service.HotSearchResponseCache} 生成响应时的规则一致。
+     * 同一平台的条目抓取时间相同，按抓取时间的降级过滤对整个平台同进同退，不会减少前 N 条
+     */
+    static List<HotSearchItem> listable(List<HotSearchItem> items) {
+        List<HotSearchItem> filtered = new ArrayList<>(items.size());
+        for (HotSearchItem item : items) {
+            if (!DEGRADED.equals(item.getCategory())) {
+                filtered.add(item);
+            }
+        }
+        if (filtered.isEmpty()) {
+            filtered = items;
+        }
+        List<HotSearchItem> deduplicated = DataDeduplicationUtil.deduplicateByTitle(filtered);
+        return deduplicated == null ? List.of() : deduplicated;
+    }
+
+    void delete(PlatformType platform) {
+        // 脚本先删除整组键，没有条目时不会重建
+        replace(platform, List.of(), 1);
+    }
+
+    /**
+     * 按排名读取
+     *
+     * @param category 为空时读取全部分类
+     * @param limit    最多返回的条数，不大于 0 表示全部
+     * @return 索引不存在时返回 null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    List<HotSearchItem> range(PlatformType platform, String category, int limit) {
+        List<Object> result = redisTemplate.execute(RANGE_SCRIPT, RedisSerializer.byteArray(),
+                (RedisSerializer) RedisSerializer.byteArray(), keys(base(platform)),
+                bytes(category == null ? "" : category), bytes(String.valueOf(Math.max(limit, 0))));
+        if (result == null || result.isEmpty() || !Long.valueOf(1).equals(result.get(0))) {
+            return null;
+        }
+        List<HotSearchItem> items = new ArrayList<>(result.size() - 1);
+        for (Object value : result.subList(1, result.size())) {
+            if (value instanceof byte[] encoded) {
+                items.addAll(HotSearchSnapshotCodec.decode(encoded));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * 修改索引中对应条目的分类，保留剩余过期时间
+     *
+     * @return 实际改写的条目数
+     */
+    long patchCategories(PlatformType platform, Map<Long, String> categories) {
+        List<Long> ids = new ArrayList<>(categories.keySet());
+        byte[][] fields = new byte[ids.size()][];
+        for (int i = 0; i < ids.size(); i++) {
+            fields[i] = bytes(String.valueOf(ids.get(i)));
+        }
+        String base = base(platform);
+        byte[] itemsKey = bytes(base + "items");
+        List<byte[]> current = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> hashValues(connection, itemsKey, fields));
+        if (current == null) {
+            return 0;
+        }
+        List<byte[]> args = new ArrayList<>();
+        for (int i = 0; i < ids.size() && i < current.size(); i++) {
+            byte[] encoded = current.get(i);
+            String category = categories.get(ids.get(i));
+            if (encoded == null || category == null) {
+                continue;
+            }
+            List<HotSearchItem> decoded = HotSearchSnapshotCodec.decode(encoded);
+            if (decoded.isEmpty() || category.equals(decoded.get(0).getCategory())) {
+                continue;
+            }
+            decoded.get(0).setCategory(category);
+            args.add(fields[i]);
+            args.add(bytes(category(category)));
+            args.add(encoded);
+            args.add(HotSearchSnapshotCodec.encode(decoded));
+        }
+        if (args.isEmpty()) {
+            return 0;
+        }
+        Long patched = redisTemplate.execute(PATCH_SCRIPT, RedisSerializer.byteArray(), longResult(), keys(base), args.toArray());
+        return patched == null ? 0 : patched;
+    }
+
+    /**
+     * 续期整组索引
+     *
+     * @return 索引是否存在
+     */
+    boolean expire(PlatformType platform, long ttlMs) {
+        Long result = redisTemplate.execute(EXPIRE_SCRIPT, RedisSerializer.byteArray(), longResult(), keys(base(platform)),
+                bytes(String.valueOf(ttlMs)));
+        return result != null && result == 1;
+    }
+
+    static String category(String category) {
+        return category == null || category.isEmpty() ? PENDING : category;
+    }
+
+    private static List<byte[]> hashValues(RedisConnection connection, byte[] key, byte[][] fields) {
+        return fields.length == 0 ? List.of() : connection.hashCommands().hMGet(key, fields);
+    }
+
+    private static String field(HotSearchItem item) {
+        return item.getId() != null ? String.valueOf(item.getId()) : "t:" + item.getTitle();
+    }
+
+    /**
+     * 平台索引键的公共前缀，每次操作只取一次，保证同一脚本内的键位于同一命名空间
+     */
+    private String base(PlatformType platform) {
+        return keyspace.key("platform:" + platform) + ":index:";
+    }
+
+    private static List<String> keys(String base) {
+        return List.of(base + "items", base + "rank", base + "categories");
+    }
+
+    private static RedisSerializer<Long> longResult() {
+        return new GenericToStringSerializer<>(Long.class);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
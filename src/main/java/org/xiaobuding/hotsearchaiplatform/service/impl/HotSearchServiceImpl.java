@@ -1,11 +1,20 @@
 package org.xiaobuding.hotsearchaiplatform.service.impl;
 import org.slf4j.*;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.xiaobuding.hotsearchaiplatform.exception.UpstreamNotModifiedException;
 import org.xiaobuding.hotsearchaiplatform.model.*;
 import org.xiaobuding.hotsearchaiplatform.repository.HotSearchRepository;
 import org.xiaobuding.hotsearchaiplatform.service.*;
+import org.xiaobuding.hotsearchaiplatform.service.task.PendingClassificationQueue;
+import org.xiaobuding.hotsearchaiplatform.util.HotSearchFingerprint;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * 热搜采集入库
+ * 采集和分类不在数据库事务内进行：分类只用关键词和缓存（大模型分类由待分类队列在后台完成），
+ * 写库由 {@link HotSearchPersistenceService} 在短事务内完成，不在等待上游或大模型时占用数据库连接
+ */
 @Service
 public class HotSearchServiceImpl implements HotSearchService {
     private static final Logger logger = LoggerFactory.getLogger(HotSearchServiceImpl.class);
@@ -13,40 +22,57 @@ public class HotSearchServiceImpl implements HotSearchService {
     private final HotSearchCacheService cacheService;
     private final HotSearchRepository repository;
     private final CategoryClassificationService categoryClassificationService;
+    private final HotSearchUpdateBroadcaster updateBroadcaster;
+    private final HotSearchPersistenceService persistenceService;
+    private final PendingClassificationQueue classificationQueue;
+    // 每个平台最近一次写入的榜单指纹
+    private final Map<PlatformType, Long> fingerprints = new ConcurrentHashMap<>();
     
     public HotSearchServiceImpl(HotSearchCollectorService collectorService,
                                 HotSearchCacheService cacheService,
                                 HotSearchRepository repository,
-                                CategoryClassificationService categoryClassificationService) {
+                                CategoryClassificationService categoryClassificationService,
+                                HotSearchUpdateBroadcaster updateBroadcaster,
+                                HotSearchPersistenceService persistenceService,
+                                PendingClassificationQueue classificationQueue) {
         this.collectorService = collectorService;
         this.cacheService = cacheService;
         this.repository = repository;
         this.categoryClassificationService = categoryClassificationService;
+        this.updateBroadcaster = updateBroadcaster;
+        this.persistenceService = persistenceService;
+        this.classificationQueue = classificationQueue;
     }
     @Override
-    @Transactional
     public List<HotSearchItem> getLatestHotSearches() {
         logger.info("Get latest hot searches");
         List<HotSearchItem> items = collectorService.collectAll(false);
-        items = categoryClassificationService.classifyItems(items);
-        repository.saveAll(items);
-        cacheService.cacheAll(items);
-        return items;
+        return saveAndCacheAll(items);
     }
     @Override
-    @Transactional
     public List<HotSearchItem> getHotSearchesByPlatform(PlatformType platform) {
         logger.info("Get hot searches by platform: {}", platform);
 
         // 0. 读取旧数据（用于失败时回退）
         List<HotSearchItem> oldItems = cacheService.getPlatformCached(platform);
-        if (oldItems == null || oldItems.isEmpty()) {
+        boolean oldFromCache = oldItems != null && !oldItems.isEmpty();
+        if (!oldFromCache) {
             oldItems = repository.findByPlatformOrderByRankAsc(platform);
         }
         logger.info("Loaded {} old items for {} as fallback", oldItems.size(), platform);
 
-        // 1. 采集最新数据（不立即删除旧数据）
-        List<HotSearchItem> items = collectorService.collectByPlatform(platform, false);
+        // 1. 采集最新数据（不立即删除旧数据），上游 304 时跳过解析、分类、入库和缓存重建
+        List<HotSearchItem> items;
+        try {
+            items = collectorService.collectIfModified(platform);
+        } catch (UpstreamNotModifiedException e) {
+            if (!oldItems.isEmpty()) {
+                return touchUnchanged(platform, oldItems, oldFromCache);
+            }
+            // 本地已无数据（缓存和数据库都被清理过），校验器不能再用，完整下载一次
+            logger.info("{} upstream not modified but no local data, fetching unconditionally", platform);
+            items = collectorService.collectByPlatform(platform, true);
+        }
         logger.info("Collected {} new items for {}", items.size(), platform);
 
         if (items == null || items.isEmpty()) {
@@ -60,35 +86,112 @@ public class HotSearchServiceImpl implements HotSearchService {
             return oldItems;
         }
 
-        // 2. 只有在拿到有效新数据时，才清理旧缓存和数据库
-        cacheService.clearPlatformCache(platform);
-        logger.info("Cleared {} cache from Redis", platform);
-
-        repository.deleteByPlatform(platform);
-        logger.info("Deleted old {} data from database", platform);
-
-        // 3. 立即进行分类
-        items = categoryClassificationService.classifyItems(items);
-        logger.info("Classified {} items for {}", items.size(), platform);
+        // 2. 榜单内容指纹未变化：只刷新抓取时间和缓存 TTL
+        long fingerprint = HotSearchFingerprint.of(items);
+        Long lastFingerprint = fingerprints.get(platform);
+        if (lastFingerprint != null && lastFingerprint == fingerprint && !oldItems.isEmpty()) {
+            return touchUnchanged(platform, oldItems, oldFromCache);
+        }
 
-        // 4. 保存新数据到数据库
-        repository.saveAll(items);
-        logger.info("Saved {} new items for {} to database", items.size(), platform);
+        // 3. 榜单有变化：按标题与数据库现有数据比对，只写入变化的行，只对新条目分类
+        Map<String, HotSearchUpdateBroadcaster.ItemState> before = updateBroadcaster.capture(oldItems);
+        List<HotSearchItem> existing = oldFromCache ? repository.findByPlatformOrderByRankAsc(platform) : oldItems;
+        items = applyChanges(platform, existing, items);
 
-        // 5. 更新Redis缓存
+        // 4. 更新Redis缓存，并向订阅者推送增量；关键词不确定的条目交给后台队列
         cacheService.cachePlatform(platform, items);
+        fingerprints.put(platform, fingerprint);
         logger.info("Updated {} cache in Redis with {} items", platform, items.size());
+        updateBroadcaster.publishSnapshot(platform, before, items);
+        classificationQueue.submit(items);
 
         return items;
     }
+    /**
+     * 将新采集的榜单合并到数据库：同标题的行只在排名、热度或链接变化时更新，
+     * 新标题插入，已下榜的标题删除；最后用一条 UPDATE 统一刷新本平台的抓取时间。
+     * 比对和分类在事务外进行，只有写入在事务内
+     */
+    private List<HotSearchItem> applyChanges(PlatformType platform, List<HotSearchItem> existing, List<HotSearchItem> items) {
+        Map<String, HotSearchItem> rowsByTitle = new HashMap<>();
+        List<HotSearchItem> removed = new ArrayList<>();
+        for (HotSearchItem row : existing) {
+            if (rowsByTitle.putIfAbsent(row.getTitle(), row) != null) {
+                removed.add(row);
+            }
+        }
+        List<HotSearchItem> merged = new ArrayList<>(items.size());
+        List<HotSearchItem> inserted = new ArrayList<>();
+        List<HotSearchItem> updated = new ArrayList<>();
+        List<HotSearchItem> toClassify = new ArrayList<>();
+        List<HotSearchItem> pendingRows = new ArrayList<>();
+        for (HotSearchItem item : items) {
+            HotSearchItem row = rowsByTitle.remove(item.getTitle());
+            if (row == null) {
+                inserted.add(item);
+                toClassify.add(item);
+                merged.add(item);
+                continue;
+            }
+            if (!Objects.equals(row.getRank(), item.getRank()) || !Objects.equals(row.getHeat(), item.getHeat())
+                    || !Objects.equals(row.getUrl(), item.getUrl())) {
+                row.setRank(item.getRank());
+                row.setHeat(item.getHeat());
+                row.setUrl(item.getUrl());
+                updated.add(row);
+            }
+            if (row.getCategory() == null || "pending".equals(row.getCategory())) {
+                toClassify.add(row);
+                pendingRows.add(row);
+            }
+            merged.add(row);
+        }
+        removed.addAll(rowsByTitle.values());
+
+        categoryClassificationService.classifyItemsByKeywords(toClassify);
+        // 已有行中本次确定了分类的才需要写回分类
+        pendingRows.removeIf(PendingClassificationQueue::needsClassification);
+        LocalDateTime now = persistenceService.writeChanges(platform, inserted, updated, pendingRows, removed);
+        merged.forEach(item -> item.setCapturedAt(now));
+        logger.info("{} changed: {} inserted, {} updated, {} deleted, {} unchanged",
+                platform, inserted.size(), updated.size(), removed.size(), merged.size() - inserted.size() - updated.size());
+        return merged;
+    }
+    /**
+     * 数据未变化：只刷新抓取时间和缓存 TTL，避免被数据库清理任务和前端降级过滤当作过期数据
+     * 旧列表可能来自近端缓存，不原地修改抓取时间，重新写缓存时使用副本
+     */
+    private List<HotSearchItem> touchUnchanged(PlatformType platform, List<HotSearchItem> oldItems, boolean oldFromCache) {
+        LocalDateTime now = LocalDateTime.now();
+        int touched = persistenceService.touch(platform, now);
+        if (oldFromCache && cacheService.touchPlatform(platform)) {
+            logger.info("{} not modified, touched {} rows and extended cache TTL", platform, touched);
+            return oldItems;
+        }
+        List<HotSearchItem> touchedItems = new ArrayList<>(oldItems.size());
+        for (HotSearchItem item : oldItems) {
+            HotSearchItem copy = item.copy();
+            copy.setCapturedAt(now);
+            touchedItems.add(copy);
+        }
+        cacheService.cachePlatform(platform, touchedItems);
+        logger.info("{} not modified, touched {} rows and re-cached {} items", platform, touched, touchedItems.size());
+        return touchedItems;
+    }
     @Override
-    @Transactional
     public List<HotSearchItem> refreshHotSearches() {
         logger.info("Force refresh all platforms");
         List<HotSearchItem> items = collectorService.collectAll(true);
-        items = categoryClassificationService.classifyItems(items);
+        return saveAndCacheAll(items);
+    }
+    /**
+     * 全平台结果：关键词分类后整批插入（saveAll 自带事务），写缓存，不确定的条目交给后台队列
+     */
+    private List<HotSearchItem> saveAndCacheAll(List<HotSearchItem> items) {
+        items = categoryClassificationService.classifyItemsByKeywords(items);
         repository.saveAll(items);
         cacheService.cacheAll(items);
+        classificationQueue.submit(items);
         return items;
     }
 }
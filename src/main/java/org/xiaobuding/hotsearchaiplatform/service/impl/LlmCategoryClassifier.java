@@ -0,0 +1,119 @@
+package org.xiaobuding.hotsearchaiplatform.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xiaobuding.hotsearchaiplatform.service.AICoreService;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 大模型分类层
+ * 关键词评分不够确定的标题攒成一批，用一次 DashScope 调用完成分类；
+ * 调用失败或返回无法解析时返回空结果，调用方保留关键词分类
+ */
+@Component
+public class LlmCategoryClassifier {
+    private static final Logger logger = LoggerFactory.getLogger(LlmCategoryClassifier.class);
+
+    private static final Set<String> CATEGORIES = Set.of(
+            "politics", "military", "economy", "tech", "entertainment", "sports", "culture", "society");
+
+    private final AICoreService aiCoreService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration timeout;
+
+    public LlmCategoryClassifier(AICoreService aiCoreService,
+                                 @Value("${hotsearch.classification.llm.enabled:true}") boolean enabled,
+                                 @Value("${hotsearch.classification.llm.max-batch-size:50}") int maxBatchSize,
+                                 @Value("${hotsearch.classification.llm.timeout-ms:20000}") long timeoutMs) {
+        this.aiCoreService = aiCoreService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * 开关打开且配置了 API Key 时才启用
+     */
+    public boolean isAvailable() {
+        return enabled && aiCoreService.isConfigured();
+    }
+
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * 批量分类
+     *
+     * @param titles 待分类标题，最多取前 maxBatchSize 条
+     * @return 标题下标 -> 分类，只包含模型给出合法分类的标题
+     */
+    public Map<Integer, String> classify(List<String> titles) {
+        Map<Integer, String> result = new HashMap<>();
+        if (titles.isEmpty() || !isAvailable()) {
+            return result;
+        }
+        int size = Math.min(titles.size(), maxBatchSize);
+        long startTime = System.currentTimeMillis();
+        String response = aiCoreService.callDashScopeAPI(buildPrompt(titles.subList(0, size)), timeout);
+        try {
+            JsonNode root = objectMapper.readTree(cleanJsonResponse(response));
+            Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                int index;
+                try {
+                    index = Integer.parseInt(field.getKey().trim()) - 1;
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                String category = field.getValue().asText().trim().toLowerCase();
+                if (index >= 0 && index < size && CATEGORIES.contains(category)) {
+                    result.put(index, category);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("LLM classification response unparseable, keeping keyword categories: {}", e.getMessage());
+            return new HashMap<>();
+        }
+        logger.info("LLM classified {}/{} ambiguous titles in {}ms", result.size(), size, System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private String buildPrompt(List<String> titles) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("你是新闻热搜分类助手。请把下面每条热搜标题归入且仅归入以下一个分类：\n");
+        prompt.append("politics（政治、外交、政府政策）、military（军事、国防、航天）、economy（经济、金融、企业）、");
+        prompt.append("tech（科技、互联网、数码）、entertainment（娱乐、明星、影视综艺、游戏）、sports（体育赛事、运动员）、");
+        prompt.append("culture（文化、历史、艺术、教育学术）、society（社会民生、事故、法治、天气）。\n\n");
+        for (int i = 0; i < titles.size(); i++) {
+            prompt.append(i + 1).append(". ").append(titles.get(i).replace('\n', ' ')).append('\n');
+        }
+        prompt.append("\n只返回一个JSON对象，键为标题序号，值为分类英文名，例如：{\"1\": \"tech\", \"2\": \"society\"}。不要输出其他内容。");
+        return prompt.toString();
+    }
+
+    private String cleanJsonResponse(String raw) {
+        if (raw == null) return "{}";
+        String cleaned = raw.trim();
+        if (cleaned.startsWith("\uFEFF")) cleaned = cleaned.substring(1);
+        int start = cleaned.indexOf('{');
+        int end = cleaned.lastIndexOf('}');
+        if (start >= 0 && end > start) {
+            cleaned = cleaned.substring(start, end + 1);
+        }
+        return cleaned;
+    }
+}
@@ -0,0 +1,92 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import org.jsoup.nodes.Element;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 热度解析方式，由数据源配置选择
+ */
+public enum HeatParser {
+
+    /**
+     * 条目文本中标题以外的 "12.3万"、"4500千" 等带单位的数字，优先取末尾的
+     */
+    UNIT_SUFFIX {
+        @Override
+        public long parse(Element item, String title) {
+            String heatPart = item.text().replace(title, "").trim();
+            Matcher matcher = TRAILING_UNIT_NUMBER.matcher(heatPart);
+            if (matcher.find()) {
+                return parseHeat(matcher.group(0));
+            }
+            matcher = UNIT_NUMBER.matcher(heatPart);
+            if (matcher.find()) {
+                return parseHeat(matcher.group(0));
+            }
+            return 0;
+        }
+    },
+
+    /**
+     * 表格行中第一个包含至少 4 位数字的单元格
+     */
+    NUMERIC_CELL {
+        @Override
+        public long parse(Element item, String title) {
+            for (Element td : item.select("td")) {
+                String tdText = td.text().trim();
+                Matcher matcher = DIGITS.matcher(tdText);
+                if (matcher.find() && matcher.group(1).length() >= 4) {
+                    return parseHeat(tdText);
+                }
+            }
+            return 0;
+        }
+    },
+
+    /**
+     * 上游不提供热度：以标题为种子生成 10万-1000万 之间的伪随机值，榜单不变时热度也不变
+     */
+    TITLE_SEEDED {
+        @Override
+        public long parse(Element item, String title) {
+            int min = 100000;
+            int max = 10000000;
+            return min + (long) (new Random(title.hashCode()).nextDouble() * (max - min));
+        }
+    };
+
+    private static final Pattern TRAILING_UNIT_NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)[万千亿]\\s*$");
+    private static final Pattern UNIT_NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)[万千亿]");
+    private static final Pattern DIGITS = Pattern.compile("(\\d+)");
+
+    public abstract long parse(Element item, String title);
+
+    /**
+     * "1.2亿" / "35.6万" / "4千" / "12345" 转换为数值，无法解析时为 0
+     */
+    static long parseHeat(String str) {
+        if (str == null || str.isEmpty()) return 0;
+        try {
+            String numStr = str.replaceAll("[^0-9.]", "");
+            if (numStr.isEmpty()) return 0;
+
+            double val = Double.parseDouble(numStr);
+
+            if (str.contains("亿")) {
+                val *= 100000000;
+            } else if (str.contains("万")) {
+                val *= 10000;
+            } else if (str.contains("千")) {
+                val *= 1000;
+            }
+
+            return (long) val;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xiaobuding.hotsearchaiplatform.exception.UpstreamNotModifiedException;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多数据源对冲请求执行器
+ * 在途请求超过阈值（约 p95 耗时）仍未返回时，并行启动下一个数据源；
+ * 取第一个非空的解析结果，并取消其余仍在进行的请求；
+ * 数据源返回 304（{@link UpstreamNotModifiedException}）同样是决定性结果，直接抛给调用方；
+ * 执行器拒绝提交时视为该数据源启动失败，继续启动下一个
+ */
+@Component
+public class HedgedSourceFetcher {
+    private static final Logger logger = LoggerFactory.getLogger(HedgedSourceFetcher.class);
+
+    /**
+     * 单个数据源：名称仅用于日志；onAdopted 在该源的结果被选中返回时调用
+     */
+    public record Source(String name, Callable<List<HotSearchItem>> task, Runnable onAdopted) {
+
+        public Source(String name, Callable<List<HotSearchItem>> task) {
+            this(name, task, () -> {
+            });
+        }
+    }
+
+    private final Executor executor;
+    private final boolean hedgeEnabled;
+    private final long hedgeDelayMs;
+
+    public HedgedSourceFetcher(@Qualifier("hotSearchFetchExecutor") Executor executor,
+                               @Value("${hotsearch.fetch.hedge-enabled:true}") boolean hedgeEnabled,
+                               @Value("${hotsearch.fetch.hedge-delay-ms:3000}") long hedgeDelayMs) {
+        this.executor = executor;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDelayMs = hedgeDelayMs;
+    }
+
+    /**
+     * 按优先级执行数据源，返回第一个非空结果；全部失败或为空时返回空列表
+     * 关闭对冲时退化为原来的串行降级：只有当前源失败或为空才启动下一个
+     *
+     * @throws UpstreamNotModifiedException 先完成的数据源确认内容未变化
+     */
+    public List<HotSearchItem> fetchFirst(String platformName, List<Source> sources) {
+        CompletionService<List<HotSearchItem>> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<List<HotSearchItem>>, Source> inFlight = new HashMap<>();
+        int next = 0;
+
+        try {
+            while (next < sources.size() || !inFlight.isEmpty()) {
+                if (inFlight.isEmpty()) {
+                    next = launchNext(completionService, inFlight, sources, next, platformName);
+                    continue;
+                }
+
+                Future<List<HotSearchItem>> done = hedgeEnabled
+                        ? completionService.poll(hedgeDelayMs, TimeUnit.MILLISECONDS)
+                        : completionService.take();
+                if (done == null) {
+                    // 在途请求超过对冲阈值，并行启动下一个数据源
+                    if (next < sources.size()) {
+                        logger.info("{}: 在途请求 {}ms 内未返回，对冲启动下一个数据源", platformName, hedgeDelayMs);
+                        next = launchNext(completionService, inFlight, sources, next, platformName);
+                    }
+                    continue;
+                }
+
+                Source source = inFlight.remove(done);
+                try {
+                    List<HotSearchItem> items = done.get();
+                    if (items != null && !items.isEmpty()) {
+                        logger.info("{}{}: 返回 {} 条数据，取消其余 {} 个在途请求",
+                                platformName, source.name(), items.size(), inFlight.size());
+                        source.onAdopted().run();
+                        return items;
+                    }
+                    logger.warn("{}{}: 返回0条数据，尝试下一个", platformName, source.name());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof UpstreamNotModifiedException notModified) {
+                        logger.info("{}{}: 内容未变化(304)，取消其余 {} 个在途请求",
+                                platformName, source.name(), inFlight.size());
+                        throw notModified;
+                    }
+                    logger.error("{}{}: 爬取失败 - {}", platformName, source.name(), cause.getMessage());
+                }
+
+                // 当前源失败或为空，不再等待阈值，立即启动下一个数据源
+                if (next < sources.size()) {
+                    next = launchNext(completionService, inFlight, sources, next, platformName);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("{}: 爬取被中断", platformName);
+        } finally {
+            inFlight.keySet().forEach(future -> future.cancel(true));
+        }
+
+        logger.error("{}: 所有数据源均失败或返回空数据", platformName);
+        return new ArrayList<>();
+    }
+
+    /**
+     * 从 next 开始启动第一个能提交成功的数据源
+     *
+     * @return 下一个未启动数据源的下标
+     */
+    private int launchNext(CompletionService<List<HotSearchItem>> completionService,
+                           Map<Future<List<HotSearchItem>>, Source> inFlight,
+                           List<Source> sources,
+                           int next,
+                           String platformName) {
+        while (next < sources.size()) {
+            Source source = sources.get(next++);
+            logger.info("{}: 启动数据源 {}", platformName, source.name());
+            try {
+                inFlight.put(completionService.submit(source.task()), source);
+                return next;
+            } catch (RejectedExecutionException e) {
+                logger.warn("{}{}: 抓取线程已满，跳过该数据源", platformName, source.name());
+            }
+        }
+        return next;
+    }
+}
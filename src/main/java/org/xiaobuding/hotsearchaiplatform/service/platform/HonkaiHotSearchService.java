@@ -4,13 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
 import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
 
@@ -19,6 +13,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,11 +30,11 @@ public class HonkaiHotSearchService {
     private static final ZoneId CHINA_ZONE = ZoneId.of("Asia/Shanghai");
     private static final Pattern BRACKET_CATEGORY = Pattern.compile("【([^】]+)】");
 
-    private final RestTemplate restTemplate;
+    private final PlatformHttpClient httpClient;
     private final ObjectMapper objectMapper;
 
-    public HonkaiHotSearchService(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public HonkaiHotSearchService(PlatformHttpClient httpClient, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
         this.objectMapper = objectMapper;
     }
 
@@ -77,19 +72,19 @@ public class HonkaiHotSearchService {
 
     private JsonNode fetchPageData(String url) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set(HttpHeaders.USER_AGENT, "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-            headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE + ",text/plain,*/*");
-            headers.set("Referer", "https://www.miyoushe.com/bh3/accountCenter/postList?id=73565430");
-
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                logger.warn("崩坏3接口返回异常: status={}, url={}", response.getStatusCode(), url);
+            PlatformHttpClient.FetchResponse response = httpClient.get(url,
+                    Map.of("Accept", "application/json,text/plain,*/*",
+                            "Referer", "https://www.miyoushe.com/bh3/accountCenter/postList?id=73565430",
+                            "Sec-Fetch-Dest", "empty",
+                            "Sec-Fetch-Mode", "cors",
+                            "Sec-Fetch-Site", "same-site"),
+                    Map.of(), 5000);
+            if (!response.isSuccessful() || response.body().length == 0) {
+                logger.warn("崩坏3接口返回异常: status={}, url={}", response.statusCode(), url);
                 return null;
             }
 
-            JsonNode root = objectMapper.readTree(response.getBody());
+            JsonNode root = objectMapper.readTree(response.body());
             if (root.path("retcode").asInt(-1) != 0) {
                 logger.warn("崩坏3接口 retcode 非0: {}, url={}", root.path("retcode").asInt(), url);
                 return null;
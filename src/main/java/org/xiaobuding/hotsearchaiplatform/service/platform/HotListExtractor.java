@@ -0,0 +1,253 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.QueryParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热榜列表抽取器
+ * 流式模式下边分词边建树，元素闭合时立即按规则匹配并转换成热搜条目，
+ * 收满 maxItems 条即停止解析，已消费的条目节点随即从树上摘除，不再为整页构建完整 DOM；
+ * 关闭流式模式时解析完整文档后按相同的闭合顺序遍历，两种模式结果一致
+ */
+@Component
+public class HotListExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(HotListExtractor.class);
+
+    // 闭合后即可丢弃的节点，任何条目选择器都不会用到其内容
+    private static final Set<String> DISPOSABLE_TAGS = Set.of("script", "style", "noscript", "svg", "template");
+    // 响应头未声明编码时，在文档开头这么多字节内查找 meta charset
+    private static final int CHARSET_SNIFF_BYTES = 2048;
+
+    /**
+     * 声明式抽取规则
+     *
+     * @param itemSelectors  条目选择器，按优先级排列；前面的选择器没有结果时才采用后面的
+     * @param startAfterText 可选，只抽取自身文本包含该标记的元素之后的条目（如页面中某个榜单标题），
+     *                       页面上找不到标记时退化为全局抽取
+     * @param maxItems       最多抽取的条目数
+     */
+    public record ExtractionRule(List<String> itemSelectors, String startAfterText, int maxItems) {
+
+        public ExtractionRule {
+            itemSelectors = List.copyOf(itemSelectors);
+        }
+
+        public static ExtractionRule of(int maxItems, String... itemSelectors) {
+            return new ExtractionRule(List.of(itemSelectors), null, maxItems);
+        }
+
+        public ExtractionRule startingAfter(String text) {
+            return new ExtractionRule(itemSelectors, text, maxItems);
+        }
+    }
+
+    /**
+     * 将匹配到的条目节点转换为热搜条目，返回 null 表示跳过该节点（不占用排名）
+     */
+    @FunctionalInterface
+    public interface ItemMapper {
+        HotSearchItem map(Element item, int rank);
+    }
+
+    private final boolean streamingEnabled;
+    private final Map<String, Evaluator> evaluators = new ConcurrentHashMap<>();
+
+    public HotListExtractor(@Value("${hotsearch.parse.streaming-enabled:true}") boolean streamingEnabled) {
+        this.streamingEnabled = streamingEnabled;
+    }
+
+    public List<HotSearchItem> extract(PlatformHttpClient.FetchResponse response, String baseUri,
+                                       ExtractionRule rule, ItemMapper mapper) throws IOException {
+        long startTime = System.nanoTime();
+        ListCollector collector = new ListCollector(rule, mapper);
+        if (streamingEnabled) {
+            extractStreaming(response, baseUri, collector);
+        } else {
+            extractFromDocument(response.parse(baseUri), collector);
+        }
+        List<HotSearchItem> items = collector.result();
+        logger.debug("{} 抽取 {} 条（{}，{} 个元素，{}μs）", baseUri, items.size(),
+                streamingEnabled ? "流式" : "DOM", collector.visited, (System.nanoTime() - startTime) / 1000);
+        return items;
+    }
+
+    private void extractStreaming(PlatformHttpClient.FetchResponse response, String baseUri,
+                                  ListCollector collector) throws IOException {
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(reader(response), baseUri)) {
+            Iterator<Element> it = parser.iterator();
+            while (it.hasNext()) {
+                Element element = it.next();
+                boolean consumed = collector.onClose(element);
+                if (collector.isFull()) {
+                    parser.stop();
+                    break;
+                }
+                if (consumed || DISPOSABLE_TAGS.contains(element.normalName())) {
+                    element.remove();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void extractFromDocument(Document doc, ListCollector collector) {
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                return FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                if (node instanceof Element element) {
+                    collector.onClose(element);
+                    if (collector.isFull()) {
+                        return FilterResult.STOP;
+                    }
+                }
+                return FilterResult.CONTINUE;
+            }
+        }, doc);
+    }
+
+    private Evaluator evaluator(String selector) {
+        return evaluators.computeIfAbsent(selector, QueryParser::parse);
+    }
+
+    /**
+     * 按元素闭合顺序累积每个选择器的匹配结果
+     */
+    private final class ListCollector {
+        private final ExtractionRule rule;
+        private final ItemMapper mapper;
+        private final List<Evaluator> selectors;
+        private final List<List<HotSearchItem>> buffers;
+        private boolean started;
+        private int visited;
+
+        ListCollector(ExtractionRule rule, ItemMapper mapper) {
+            this.rule = rule;
+            this.mapper = mapper;
+            this.selectors = new ArrayList<>(rule.itemSelectors().size());
+            this.buffers = new ArrayList<>(rule.itemSelectors().size());
+            for (String selector : rule.itemSelectors()) {
+                selectors.add(evaluator(selector));
+                buffers.add(new ArrayList<>());
+            }
+            this.started = rule.startAfterText() == null;
+        }
+
+        /**
+         * @return 元素是否被最高优先级的选择器消费（消费后可以从树上摘除）
+         */
+        boolean onClose(Element element) {
+            visited++;
+            if (!started && element.ownText().contains(rule.startAfterText())) {
+                // 找到起始标记：丢弃此前的全局结果，从这里重新计数
+                started = true;
+                buffers.forEach(List::clear);
+                return false;
+            }
+            boolean consumed = false;
+            for (int i = 0; i < selectors.size(); i++) {
+                List<HotSearchItem> buffer = buffers.get(i);
+                if (buffer.size() >= rule.maxItems() || !element.is(selectors.get(i))) {
+                    continue;
+                }
+                HotSearchItem item = mapper.map(element, buffer.size() + 1);
+                if (item != null) {
+                    buffer.add(item);
+                    consumed |= i == 0;
+                }
+            }
+            return consumed;
+        }
+
+        /**
+         * 最高优先级选择器已收满（且已越过起始标记），后面的内容不会再改变结果
+         */
+        boolean isFull() {
+            return started && buffers.get(0).size() >= rule.maxItems();
+        }
+
+        List<HotSearchItem> result() {
+            for (List<HotSearchItem> buffer : buffers) {
+                if (!buffer.isEmpty()) {
+                    return buffer;
+                }
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    private static Reader reader(PlatformHttpClient.FetchResponse response) {
+        Charset charset = null;
+        if (response.charset() != null) {
+            charset = Charset.forName(response.charset());
+        }
+        if (charset == null) {
+            charset = sniffCharset(response.body());
+        }
+        return new InputStreamReader(new ByteArrayInputStream(response.body()), charset);
+    }
+
+    /**
+     * 响应头没有编码时按 BOM 和文档开头的 meta charset 判断，默认 UTF-8
+     */
+    private static Charset sniffCharset(byte[] body) {
+        if (body.length >= 3 && (body[0] & 0xFF) == 0xEF && (body[1] & 0xFF) == 0xBB && (body[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        String head = new String(body, 0, Math.min(body.length, CHARSET_SNIFF_BYTES), StandardCharsets.ISO_8859_1)
+                .toLowerCase(Locale.ROOT);
+        int index = head.indexOf("charset=");
+        if (index >= 0) {
+            int start = index + "charset=".length();
+            while (start < head.length() && (head.charAt(start) == '"' || head.charAt(start) == '\'')) {
+                start++;
+            }
+            int end = start;
+            while (end < head.length() && (Character.isLetterOrDigit(head.charAt(end))
+                    || head.charAt(end) == '-' || head.charAt(end) == '_')) {
+                end++;
+            }
+            String name = head.substring(start, end);
+            try {
+                if (!name.isEmpty() && Charset.isSupported(name)) {
+                    return Charset.forName(name);
+                }
+            } catch (IllegalArgumentException e) {
+                logger.debug("忽略非法的charset: {}", name);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
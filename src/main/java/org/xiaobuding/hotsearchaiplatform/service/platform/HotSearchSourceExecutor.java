@@ -0,0 +1,235 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.xiaobuding.hotsearchaiplatform.exception.UpstreamNotModifiedException;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 通用热榜爬取执行器
+ * 按注册表中的配置执行任意平台的数据源：共享连接池、会话Cookie、条件请求、
+ * 主备对冲和流式抽取对所有数据源一致生效；
+ * 每次爬取前按健康度重排数据源并跳过熔断中的上游，每次请求的结果回写健康统计；
+ * 条件请求的校验器只在条件采集时、且只记录最终被采用的数据源的响应
+ */
+@Service
+public class HotSearchSourceExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(HotSearchSourceExecutor.class);
+
+    private final HotSearchSourceRegistry registry;
+    private final HedgedSourceFetcher hedgedSourceFetcher;
+    private final ThirdPartySessionManager sessionManager;
+    private final PlatformHttpClient httpClient;
+    private final HotListExtractor listExtractor;
+    private final SourceHealthTracker healthTracker;
+
+    public HotSearchSourceExecutor(HotSearchSourceRegistry registry,
+                                   HedgedSourceFetcher hedgedSourceFetcher,
+                                   ThirdPartySessionManager sessionManager,
+                                   PlatformHttpClient httpClient,
+                                   HotListExtractor listExtractor,
+                                   SourceHealthTracker healthTracker) {
+        this.registry = registry;
+        this.hedgedSourceFetcher = hedgedSourceFetcher;
+        this.sessionManager = sessionManager;
+        this.httpClient = httpClient;
+        this.listExtractor = listExtractor;
+        this.healthTracker = healthTracker;
+    }
+
+    /**
+     * 按优先级请求平台的数据源，返回第一个非空结果
+     *
+     * @param conditional 对配置了 conditional 的数据源带上次响应的 ETag / Last-Modified，
+     *                    并在结果被采用时更新校验器；为 false 时既不发送也不更新校验器
+     * @throws UpstreamNotModifiedException 条件请求的数据源返回 304，内容与上次一致
+     */
+    public List<HotSearchItem> fetchHotSearch(PlatformType platform, boolean conditional) {
+        HotSearchSourceRegistry.PlatformDefinition definition = registry.get(platform);
+        long startTime = System.currentTimeMillis();
+        logger.info("========== 开始爬取{}热搜 ==========", definition.displayName());
+
+        List<HotSearchSourceRegistry.SourceDefinition> ordered = healthTracker.order(definition.sources(),
+                HotSearchSourceRegistry.SourceDefinition::url, HotSearchSourceRegistry.SourceDefinition::timeoutMs);
+        if (ordered.size() < definition.sources().size()) {
+            logger.info("{}: {} 个数据源熔断中，本次跳过", definition.displayName(), definition.sources().size() - ordered.size());
+        }
+        List<HedgedSourceFetcher.Source> sources = new ArrayList<>(ordered.size());
+        for (HotSearchSourceRegistry.SourceDefinition source : ordered) {
+            AtomicReference<PlatformHttpClient.FetchResponse> response = new AtomicReference<>();
+            Callable<List<HotSearchItem>> task = () -> fetchTracked(definition, source, conditional, response);
+            sources.add(conditional
+                    ? new HedgedSourceFetcher.Source(source.name(), task, () -> adopt(definition, source, response.get()))
+                    : new HedgedSourceFetcher.Source(source.name(), task));
+        }
+
+        List<HotSearchItem> items = hedgedSourceFetcher.fetchFirst(definition.displayName(), sources);
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("========== {}爬取完成: {} 条数据, 耗时 {}ms ==========", definition.displayName(), items.size(), duration);
+        return items;
+    }
+
+    /**
+     * 当前数据源在重排序后的尝试顺序及健康状态
+     */
+    public List<SourceHealthTracker.SourceHealth> sourceHealth(PlatformType platform) {
+        HotSearchSourceRegistry.PlatformDefinition definition = registry.get(platform);
+        List<SourceHealthTracker.SourceHealth> health = new ArrayList<>(definition.sources().size());
+        List<HotSearchSourceRegistry.SourceDefinition> ordered = healthTracker.order(definition.sources(),
+                HotSearchSourceRegistry.SourceDefinition::url, HotSearchSourceRegistry.SourceDefinition::timeoutMs);
+        for (HotSearchSourceRegistry.SourceDefinition source : ordered) {
+            health.add(healthTracker.snapshot(source.name(), source.url()));
+        }
+        // 熔断中的源排在最后
+        for (HotSearchSourceRegistry.SourceDefinition source : definition.sources()) {
+            if (!ordered.contains(source)) {
+                health.add(healthTracker.snapshot(source.name(), source.url()));
+            }
+        }
+        return health;
+    }
+
+    /**
+     * 经过熔断器的单次请求：有数据或 304 记为成功，异常或空结果记为失败，被对冲取消的不计
+     */
+    private List<HotSearchItem> fetchTracked(HotSearchSourceRegistry.PlatformDefinition definition,
+                                             HotSearchSourceRegistry.SourceDefinition source,
+                                             boolean conditional,
+                                             AtomicReference<PlatformHttpClient.FetchResponse> response) throws Exception {
+        if (!healthTracker.tryAcquire(source.url())) {
+            throw new IOException(definition.displayName() + source.name() + "熔断中，跳过");
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            List<HotSearchItem> items = fetchSource(definition, source, conditional, response);
+            if (items.isEmpty()) {
+                healthTracker.recordFailure(source.url());
+            } else {
+                healthTracker.recordSuccess(source.url(), System.currentTimeMillis() - startTime);
+            }
+            return items;
+        } catch (UpstreamNotModifiedException e) {
+            healthTracker.recordSuccess(source.url(), System.currentTimeMillis() - startTime);
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
+                healthTracker.release(source.url());
+            } else {
+                healthTracker.recordFailure(source.url());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param adopted 收到成功响应时写入，结果被采用后据此记录校验器
+     */
+    private List<HotSearchItem> fetchSource(HotSearchSourceRegistry.PlatformDefinition definition,
+                                            HotSearchSourceRegistry.SourceDefinition source,
+                                            boolean conditional,
+                                            AtomicReference<PlatformHttpClient.FetchResponse> adopted) throws Exception {
+        String label = definition.displayName() + source.name();
+        Map<String, String> headers = Map.of();
+        Map<String, String> cookies = Map.of();
+        if (source.hasSession()) {
+            // 复用第三方首页的会话Cookie（过期后才重新访问首页）
+            cookies = sessionManager.getCookies(source.session(), source.sessionHomepage());
+            headers = Map.of("Referer", source.sessionHomepage(), "Sec-Fetch-Site", "same-origin");
+        }
+
+        PlatformHttpClient.FetchResponse response = httpClient.get(source.url(), headers, cookies,
+                source.timeoutMs(), conditional && source.conditional());
+        if (response.isNotModified()) {
+            throw new UpstreamNotModifiedException(label + "内容未变化", source.url());
+        }
+        if (source.hasSession() && (response.statusCode() == 401 || response.statusCode() == 403)) {
+            sessionManager.invalidate(source.session(), label + "返回HTTP " + response.statusCode());
+            throw new IOException(label + "鉴权失败: HTTP " + response.statusCode());
+        }
+        if (!response.isSuccessful()) {
+            throw new IOException(label + "返回HTTP " + response.statusCode());
+        }
+
+        List<HotSearchItem> items = listExtractor.extract(response, source.url(), source.rule(),
+                (item, rank) -> toItem(definition, source, item, rank));
+        logger.info("{}: 抽取到 {} 条数据", label, items.size());
+
+        if (items.isEmpty()) {
+            if (source.hasSession()) {
+                // 空页面通常意味着会话失效，作废后下次重新建立
+                sessionManager.invalidate(source.session(), label + "返回0条数据");
+            }
+            // 解析为空的页面不能作为后续 304 的依据
+            httpClient.forgetValidators(source.url());
+        } else {
+            adopted.set(response);
+        }
+        return items;
+    }
+
+    /**
+     * 结果被采用：记录该数据源的校验器，并丢弃同平台其他数据源的校验器。
+     * 其他源下次返回 304 只说明它自己的内容没变，而当前保存的是被采用源的内容
+     */
+    private void adopt(HotSearchSourceRegistry.PlatformDefinition definition,
+                       HotSearchSourceRegistry.SourceDefinition adopted,
+                       PlatformHttpClient.FetchResponse response) {
+        for (HotSearchSourceRegistry.SourceDefinition source : definition.sources()) {
+            if (!source.url().equals(adopted.url())) {
+                httpClient.forgetValidators(source.url());
+            }
+        }
+        if (response != null) {
+            httpClient.rememberValidators(adopted.url(), response);
+        }
+    }
+
+    private HotSearchItem toItem(HotSearchSourceRegistry.PlatformDefinition definition,
+                                 HotSearchSourceRegistry.SourceDefinition source,
+                                 Element item, int rank) {
+        Element link = item.is(source.linkSelector()) ? item : item.selectFirst(source.linkSelector());
+        if (link == null) return null;
+
+        String title = link.text().trim();
+        if (title.isEmpty() || source.rejectsTitle(title)) return null;
+
+        long heat = source.heat().parse(item, title);
+
+        String url = null;
+        if (source.linkAsUrl()) {
+            String href = link.attr("href");
+            if (href.startsWith("http")) {
+                url = href;
+            }
+        }
+        if (url == null) {
+            url = definition.itemUrl(title);
+        }
+
+        HotSearchItem hotItem = new HotSearchItem();
+        hotItem.setPlatform(definition.platform());
+        hotItem.setTitle(title);
+        hotItem.setHeat(heat);
+        hotItem.setRank(rank);
+        hotItem.setUrl(url);
+        hotItem.setCapturedAt(LocalDateTime.now());
+        hotItem.setCategory("pending");
+
+        if (rank <= 3) {
+            logger.debug("{}{} rank {}: title='{}', heat={}", definition.displayName(), source.name(), rank, title, heat);
+        }
+        return hotItem;
+    }
+}
@@ -0,0 +1,193 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.xiaobuding.hotsearchaiplatform.config.HotSearchSourceProperties;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 热榜数据源注册表
+ * 启动时校验 hotsearch.sources 配置并预编译选择器和正则，配置错误直接启动失败
+ */
+@Component
+public class HotSearchSourceRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(HotSearchSourceRegistry.class);
+
+    /**
+     * 已校验的单个数据源
+     */
+    public record SourceDefinition(String name,
+                                   String url,
+                                   int timeoutMs,
+                                   String session,
+                                   String sessionHomepage,
+                                   boolean conditional,
+                                   HotListExtractor.ExtractionRule rule,
+                                   Evaluator linkSelector,
+                                   int minTitleLength,
+                                   Pattern excludeTitlePattern,
+                                   List<String> excludeTitleKeywords,
+                                   HeatParser heat,
+                                   boolean linkAsUrl) {
+
+        public boolean hasSession() {
+            return session != null;
+        }
+
+        /**
+         * 标题是否需要跳过（长度不足、匹配排除正则或包含排除关键词）
+         */
+        public boolean rejectsTitle(String title) {
+            if (title.length() < minTitleLength) {
+                return true;
+            }
+            if (excludeTitlePattern != null && excludeTitlePattern.matcher(title).matches()) {
+                return true;
+            }
+            for (String keyword : excludeTitleKeywords) {
+                if (title.contains(keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 已校验的平台配置，数据源按优先级排列
+     */
+    public record PlatformDefinition(PlatformType platform,
+                                     String displayName,
+                                     String searchUrl,
+                                     long budgetMs,
+                                     List<SourceDefinition> sources) {
+
+        public String itemUrl(String title) {
+            return searchUrl.replace("{keyword}", URLEncoder.encode(title, StandardCharsets.UTF_8));
+        }
+    }
+
+    private final Map<PlatformType, PlatformDefinition> platforms = new EnumMap<>(PlatformType.class);
+
+    public HotSearchSourceRegistry(HotSearchSourceProperties properties) {
+        properties.getSources().forEach((platform, config) -> platforms.put(platform, define(platform, config)));
+        platforms.values().forEach(definition -> logger.info("注册热榜数据源 {}({}): {}", definition.displayName(),
+                definition.platform(), definition.sources().stream().map(SourceDefinition::name).toList()));
+    }
+
+    /**
+     * 已配置数据源的平台，按枚举顺序
+     */
+    public List<PlatformType> platforms() {
+        return List.copyOf(platforms.keySet());
+    }
+
+    public boolean contains(PlatformType platform) {
+        return platforms.containsKey(platform);
+    }
+
+    public PlatformDefinition get(PlatformType platform) {
+        PlatformDefinition definition = platforms.get(platform);
+        if (definition == null) {
+            throw new IllegalArgumentException("平台未配置数据源: " + platform);
+        }
+        return definition;
+    }
+
+    /**
+     * 平台一次采集的时间预算，未配置时使用默认值
+     */
+    public long budgetMs(PlatformType platform, long defaultBudgetMs) {
+        PlatformDefinition definition = platforms.get(platform);
+        return definition != null && definition.budgetMs() > 0 ? definition.budgetMs() : defaultBudgetMs;
+    }
+
+    /**
+     * 按平台的链接模板生成条目URL，平台未配置时返回空串
+     */
+    public String itemUrl(PlatformType platform, String title) {
+        PlatformDefinition definition = platforms.get(platform);
+        return definition != null ? definition.itemUrl(title) : "";
+    }
+
+    private PlatformDefinition define(PlatformType platform, HotSearchSourceProperties.PlatformSources config) {
+        String displayName = config.getDisplayName() != null ? config.getDisplayName() : platform.name();
+        if (config.getSearchUrl() == null || !config.getSearchUrl().contains("{keyword}")) {
+            throw new IllegalStateException(platform + ": search-url 必须包含 {keyword} 占位符");
+        }
+        if (config.getEndpoints().isEmpty()) {
+            throw new IllegalStateException(platform + ": 至少需要配置一个数据源");
+        }
+
+        List<HotSearchSourceProperties.Endpoint> endpoints = new ArrayList<>(config.getEndpoints());
+        endpoints.sort(Comparator.comparingInt(HotSearchSourceProperties.Endpoint::getPriority));
+        List<SourceDefinition> sources = new ArrayList<>(endpoints.size());
+        for (int i = 0; i < endpoints.size(); i++) {
+            sources.add(define(platform, config, endpoints.get(i), i));
+        }
+        return new PlatformDefinition(platform, displayName, config.getSearchUrl(), config.getBudgetMs(), List.copyOf(sources));
+    }
+
+    private SourceDefinition define(PlatformType platform, HotSearchSourceProperties.PlatformSources config,
+                                    HotSearchSourceProperties.Endpoint endpoint, int index) {
+        String name = endpoint.getName() != null ? endpoint.getName() : "数据源" + (index + 1);
+        String where = platform + "." + name;
+        if (endpoint.getUrl() == null || endpoint.getUrl().isBlank()) {
+            throw new IllegalStateException(where + ": url 不能为空");
+        }
+        if (endpoint.getItemSelectors().isEmpty()) {
+            throw new IllegalStateException(where + ": item-selectors 不能为空");
+        }
+        if (endpoint.getSession() != null && endpoint.getSessionHomepage() == null) {
+            throw new IllegalStateException(where + ": 配置了 session 时必须同时配置 session-homepage");
+        }
+        endpoint.getItemSelectors().forEach(selector -> compile(where, selector));
+
+        Pattern excludePattern = null;
+        if (endpoint.getExcludeTitlePattern() != null) {
+            try {
+                excludePattern = Pattern.compile(endpoint.getExcludeTitlePattern());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalStateException(where + ": exclude-title-pattern 无效 - " + e.getMessage(), e);
+            }
+        }
+
+        HotListExtractor.ExtractionRule rule = new HotListExtractor.ExtractionRule(
+                endpoint.getItemSelectors(), endpoint.getStartAfter(), endpoint.getMaxItems());
+        return new SourceDefinition(name,
+                endpoint.getUrl(),
+                endpoint.getTimeoutMs(),
+                endpoint.getSession(),
+                endpoint.getSessionHomepage(),
+                endpoint.isConditional(),
+                rule,
+                compile(where, endpoint.getLinkSelector()),
+                endpoint.getMinTitleLength(),
+                excludePattern,
+                List.copyOf(endpoint.getExcludeTitleKeywords()),
+                endpoint.getHeat() != null ? endpoint.getHeat() : config.getHeat(),
+                endpoint.isLinkAsUrl());
+    }
+
+    private static Evaluator compile(String where, String selector) {
+        try {
+            return QueryParser.parse(selector);
+        } catch (Selector.SelectorParseException e) {
+            throw new IllegalStateException(where + ": 选择器无效 '" + selector + "' - " + e.getMessage(), e);
+        }
+    }
+}
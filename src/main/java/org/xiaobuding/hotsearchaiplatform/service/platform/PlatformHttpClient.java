@@ -0,0 +1,258 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xiaobuding.hotsearchaiplatform.config.ThreadingMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 所有平台爬虫共用的 HTTP 传输层
+ * 单个 HttpClient 实例复用 keep-alive 连接池，服务端支持时走 HTTP/2；
+ * 负责统一请求头、gzip/deflate 解压和按主机的并发限制，Jsoup 只解析这里返回的字节；
+ * 同时保存每个 URL 最近一次被采用的 200 响应的 ETag / Last-Modified，供条件请求使用
+ */
+@Component
+public class PlatformHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(PlatformHttpClient.class);
+
+    // 浏览器导航请求的公共请求头（Connection 等受限头由 HttpClient 自行管理）
+    private static final Map<String, String> DEFAULT_HEADERS = Map.of(
+            "User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
+            "Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8",
+            "Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8",
+            "Accept-Encoding", "gzip, deflate",
+            "Upgrade-Insecure-Requests", "1",
+            "Sec-Fetch-Dest", "document",
+            "Sec-Fetch-Mode", "navigate",
+            "Sec-Fetch-Site", "none",
+            "Sec-Fetch-User", "?1",
+            "Cache-Control", "max-age=0"
+    );
+
+    /**
+     * 已解压的响应
+     */
+    public record FetchResponse(int statusCode, byte[] body, String charset, HttpHeaders headers) {
+
+        public boolean isSuccessful() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+
+        public boolean isNotModified() {
+            return statusCode == 304;
+        }
+
+        /**
+         * 解析为 Jsoup 文档；响应头未声明编码时由 Jsoup 根据 meta 标签探测
+         */
+        public Document parse(String baseUri) throws IOException {
+            return Jsoup.parse(new ByteArrayInputStream(body), charset, baseUri);
+        }
+
+        /**
+         * 响应中 Set-Cookie 的名称和值
+         */
+        public Map<String, String> cookies() {
+            Map<String, String> cookies = new LinkedHashMap<>();
+            for (String setCookie : headers.allValues("Set-Cookie")) {
+                try {
+                    for (HttpCookie cookie : HttpCookie.parse(setCookie)) {
+                        cookies.put(cookie.getName(), cookie.getValue());
+                    }
+                } catch (IllegalArgumentException e) {
+                    logger.debug("忽略无法解析的Set-Cookie: {}", setCookie);
+                }
+            }
+            return cookies;
+        }
+    }
+
+    /**
+     * 上次成功响应的缓存校验器
+     */
+    private record Validators(String etag, String lastModified) {
+    }
+
+    private final HttpClient httpClient;
+    private final int maxConcurrentPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+
+    public PlatformHttpClient(ThreadingMode threadingMode,
+                              @Value("${hotsearch.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+                              @Value("${hotsearch.http.max-concurrent-per-host:4}") int maxConcurrentPerHost) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs));
+        if (threadingMode.isVirtual()) {
+            // HttpClient 内部的异步任务也跑在虚拟线程上，不再额外占用缓存线程池
+            builder.executor(threadingMode.virtualExecutor("platform-http-", 0));
+        }
+        this.httpClient = builder.build();
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+    }
+
+    public FetchResponse get(String url, int timeoutMs) throws IOException, InterruptedException {
+        return get(url, Map.of(), Map.of(), timeoutMs, false);
+    }
+
+    public FetchResponse get(String url, Map<String, String> headers, Map<String, String> cookies, int timeoutMs)
+            throws IOException, InterruptedException {
+        return get(url, headers, cookies, timeoutMs, false);
+    }
+
+    /**
+     * 发起 GET 请求
+     *
+     * @param headers     覆盖或补充默认请求头（如 Referer、Accept、Sec-Fetch-Site）
+     * @param cookies     随请求发送的 Cookie
+     * @param timeoutMs   请求超时，同时也是等待主机并发许可的最长时间
+     * @param conditional 为 true 时带上该 URL 已记录的 If-None-Match / If-Modified-Since，
+     *                    内容未变化时返回 304 且响应体为空；
+     *                    响应本身不会更新校验器，结果被采用后由调用方 {@link #rememberValidators} 记录
+     */
+    public FetchResponse get(String url, Map<String, String> headers, Map<String, String> cookies, int timeoutMs,
+                             boolean conditional) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        Map<String, String> requestHeaders = new LinkedHashMap<>(DEFAULT_HEADERS);
+        requestHeaders.putAll(headers);
+        Validators known = conditional ? validators.get(url) : null;
+        if (known != null) {
+            if (known.etag() != null) {
+                requestHeaders.put("If-None-Match", known.etag());
+            }
+            if (known.lastModified() != null) {
+                requestHeaders.put("If-Modified-Since", known.lastModified());
+            }
+        }
+        if (!cookies.isEmpty()) {
+            StringBuilder cookieHeader = new StringBuilder();
+            cookies.forEach((name, value) -> {
+                if (cookieHeader.length() > 0) {
+                    cookieHeader.append("; ");
+                }
+                cookieHeader.append(name).append('=').append(value);
+            });
+            requestHeaders.put("Cookie", cookieHeader.toString());
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .GET();
+        requestHeaders.forEach(builder::header);
+
+        Semaphore permits = hostPermits.computeIfAbsent(uri.getHost(), host -> new Semaphore(maxConcurrentPerHost));
+        if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new IOException("等待主机并发许可超时: " + uri.getHost());
+        }
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 304) {
+                logger.debug("GET {} -> 304 Not Modified", url);
+                return new FetchResponse(304, new byte[0], null, response.headers());
+            }
+            byte[] body = decode(response.body(), response.headers());
+            logger.debug("GET {} -> {} ({} bytes, {})", url, response.statusCode(), body.length, response.version());
+            return new FetchResponse(response.statusCode(), body, charsetOf(response.headers()), response.headers());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 丢弃某个 URL 的校验器，下一次条件请求会重新下载完整内容
+     * 用于上次结果没有被采用的场景（解析为空、降级到备用源等）
+     */
+    public void forgetValidators(String url) {
+        validators.remove(url);
+    }
+
+    /**
+     * 记录响应的校验器，只应在该响应的内容被采用（入库、写缓存）时调用；
+     * 对冲中落选的响应若也记录，下次 304 会让调用方误以为已保存的内容与它一致
+     */
+    public void rememberValidators(String url, FetchResponse response) {
+        if (response.statusCode() != 200) {
+            return;
+        }
+        HttpHeaders headers = response.headers();
+        String etag = headers.firstValue("ETag").orElse(null);
+        String lastModified = headers.firstValue("Last-Modified").orElse(null);
+        if (etag == null && lastModified == null) {
+            validators.remove(url);
+        } else {
+            validators.put(url, new Validators(etag, lastModified));
+        }
+    }
+
+    private byte[] decode(byte[] body, HttpHeaders headers) throws IOException {
+        String encoding = headers.firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        if (body.length == 0 || encoding.isEmpty() || "identity".equals(encoding)) {
+            return body;
+        }
+        switch (encoding) {
+            case "gzip", "x-gzip" -> {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                    return in.readAllBytes();
+                }
+            }
+            case "deflate" -> {
+                try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(body))) {
+                    return in.readAllBytes();
+                } catch (IOException e) {
+                    // 部分服务端返回不带 zlib 头的原始 deflate 数据
+                    try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(body), new Inflater(true))) {
+                        return in.readAllBytes();
+                    }
+                }
+            }
+            default -> {
+                logger.warn("不支持的Content-Encoding: {}，按原始字节处理", encoding);
+                return body;
+            }
+        }
+    }
+
+    private String charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String part : contentType.split(";")) {
+            String trimmed = part.trim();
+            if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                String name = trimmed.substring("charset=".length()).replace("\"", "").trim();
+                try {
+                    if (Charset.isSupported(name)) {
+                        return name;
+                    }
+                } catch (IllegalArgumentException e) {
+                    logger.debug("忽略非法的charset: {}", name);
+                }
+            }
+        }
+        return null;
+    }
+}
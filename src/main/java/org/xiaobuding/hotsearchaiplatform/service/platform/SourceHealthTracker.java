@@ -0,0 +1,200 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 按上游 URL 统计数据源健康度
+ * 每个 URL 一个熔断器：连续失败达到阈值后打开，冷却期内直接跳过；
+ * 冷却结束后半开，只放行一个探测请求，成功则关闭，失败则重新打开。
+ * 同时维护成功率和耗时的指数滑动平均，用于给同一平台的数据源重新排序
+ */
+@Component
+public class SourceHealthTracker {
+    private static final Logger logger = LoggerFactory.getLogger(SourceHealthTracker.class);
+    // 成功率下限，避免全部失败的源得分无穷大后无法与其他失败源比较
+    private static final double MIN_SUCCESS_RATE = 0.05;
+
+    public enum CircuitState {
+        CLOSED,     // 正常放行
+        OPEN,       // 熔断中，跳过
+        HALF_OPEN   // 冷却结束，放行单个探测请求
+    }
+
+    /**
+     * 数据源健康快照
+     */
+    public record SourceHealth(String name,
+                               String url,
+                               CircuitState state,
+                               int consecutiveFailures,
+                               long successCount,
+                               long failureCount,
+                               double successRate,
+                               long latencyMs,
+                               LocalDateTime openedAt) {
+    }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final double alpha;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    public SourceHealthTracker(@Value("${hotsearch.fetch.breaker.failure-threshold:3}") int failureThreshold,
+                               @Value("${hotsearch.fetch.breaker.open-ms:60000}") long openMs,
+                               @Value("${hotsearch.fetch.health.ewma-alpha:0.3}") double alpha) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.alpha = alpha;
+    }
+
+    /**
+     * 按健康度重排数据源：等待探测的半开源排最前（单个探测请求，失败只占用一个对冲阈值），
+     * 其余按 "平均耗时 / 成功率" 从小到大，熔断中的源被剔除；
+     * 没有观测数据的源以一半超时作为先验耗时，得分相同时保持配置顺序
+     */
+    public <T> List<T> order(List<T> sources, Function<T, String> url, ToIntFunction<T> timeoutMs) {
+        List<T> probes = new ArrayList<>();
+        List<T> healthy = new ArrayList<>();
+        Map<T, Double> scores = new IdentityHashMap<>();
+        long now = System.currentTimeMillis();
+        for (T source : sources) {
+            Circuit circuit = circuit(url.apply(source));
+            synchronized (circuit) {
+                if (circuit.state == CircuitState.OPEN && now - circuit.openedAtMillis < openMs) {
+                    continue;
+                }
+                if (circuit.state != CircuitState.CLOSED) {
+                    if (!circuit.probeInFlight) {
+                        probes.add(source);
+                    }
+                    continue;
+                }
+                scores.put(source, circuit.score(timeoutMs.applyAsInt(source)));
+                healthy.add(source);
+            }
+        }
+        healthy.sort(Comparator.comparingDouble(scores::get));
+        probes.addAll(healthy);
+        return probes;
+    }
+
+    /**
+     * 请求前调用：熔断打开时拒绝；冷却结束后只有第一个调用者拿到探测资格
+     */
+    public boolean tryAcquire(String url) {
+        Circuit circuit = circuit(url);
+        synchronized (circuit) {
+            switch (circuit.state) {
+                case CLOSED -> {
+                    return true;
+                }
+                case OPEN -> {
+                    if (System.currentTimeMillis() - circuit.openedAtMillis < openMs) {
+                        return false;
+                    }
+                    circuit.state = CircuitState.HALF_OPEN;
+                    circuit.probeInFlight = true;
+                    logger.info("数据源熔断冷却结束，放行探测请求: {}", url);
+                    return true;
+                }
+                default -> {
+                    if (circuit.probeInFlight) {
+                        return false;
+                    }
+                    circuit.probeInFlight = true;
+                    return true;
+                }
+            }
+        }
+    }
+
+    public void recordSuccess(String url, long latencyMs) {
+        Circuit circuit = circuit(url);
+        synchronized (circuit) {
+            circuit.successCount++;
+            circuit.successRate = circuit.successRate * (1 - alpha) + alpha;
+            circuit.latencyMs = circuit.latencySamples == 0 ? latencyMs : circuit.latencyMs * (1 - alpha) + latencyMs * alpha;
+            circuit.latencySamples++;
+            circuit.consecutiveFailures = 0;
+            circuit.probeInFlight = false;
+            if (circuit.state != CircuitState.CLOSED) {
+                logger.info("数据源恢复，熔断关闭: {}", url);
+                circuit.state = CircuitState.CLOSED;
+            }
+        }
+    }
+
+    public void recordFailure(String url) {
+        Circuit circuit = circuit(url);
+        synchronized (circuit) {
+            circuit.failureCount++;
+            circuit.successRate = circuit.successRate * (1 - alpha);
+            circuit.consecutiveFailures++;
+            circuit.probeInFlight = false;
+            if (circuit.state == CircuitState.HALF_OPEN
+                    || (circuit.state == CircuitState.CLOSED && circuit.consecutiveFailures >= failureThreshold)) {
+                circuit.state = CircuitState.OPEN;
+                circuit.openedAtMillis = System.currentTimeMillis();
+                circuit.openedAt = LocalDateTime.now();
+                logger.warn("数据源连续失败 {} 次，熔断 {}ms: {}", circuit.consecutiveFailures, openMs, url);
+            }
+        }
+    }
+
+    /**
+     * 请求被取消（对冲中其他源先返回）：不计入成功或失败，只归还探测资格
+     */
+    public void release(String url) {
+        Circuit circuit = circuit(url);
+        synchronized (circuit) {
+            circuit.probeInFlight = false;
+        }
+    }
+
+    public SourceHealth snapshot(String name, String url) {
+        Circuit circuit = circuit(url);
+        synchronized (circuit) {
+            return new SourceHealth(name, url, circuit.state, circuit.consecutiveFailures,
+                    circuit.successCount, circuit.failureCount, circuit.successRate,
+                    Math.round(circuit.latencyMs), circuit.openedAt);
+        }
+    }
+
+    private Circuit circuit(String url) {
+        return circuits.computeIfAbsent(url, key -> new Circuit());
+    }
+
+    private static final class Circuit {
+        private CircuitState state = CircuitState.CLOSED;
+        private boolean probeInFlight;
+        private int consecutiveFailures;
+        private long successCount;
+        private long failureCount;
+        private long openedAtMillis;
+        private LocalDateTime openedAt;
+        private double successRate = 1.0;
+        private double latencyMs;
+        private long latencySamples;
+
+        /**
+         * 期望耗时：平均耗时 / 成功率，越小越优先
+         */
+        private double score(int timeoutMs) {
+            double latency = latencySamples == 0 ? timeoutMs / 2.0 : latencyMs;
+            return latency / Math.max(successRate, MIN_SUCCESS_RATE);
+        }
+    }
+}
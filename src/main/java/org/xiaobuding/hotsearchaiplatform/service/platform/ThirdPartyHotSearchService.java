@@ -1,47 +1,32 @@
 package org.xiaobuding.hotsearchaiplatform.service.platform;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.xiaobuding.hotsearchaiplatform.exception.UpstreamNotModifiedException;
 import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
 
 import java.util.List;
 
 /**
  * 第三方热搜服务聚合器
- * 使用独立的平台服务实现高速并行爬取
+ * 网页热榜平台由数据源注册表驱动的通用执行器爬取
+ * 崩坏3公告不是独立平台（数据库中 platform 是原生 ENUM 列），只通过 /honkai 接口直接返回，不入库
  */
 @Service
 public class ThirdPartyHotSearchService {
-    private static final Logger logger = LoggerFactory.getLogger(ThirdPartyHotSearchService.class);
     
-    private final WeiboHotSearchService weiboService;
-    private final BilibiliHotSearchService bilibiliService;
-    private final ToutiaoHotSearchService toutiaoService;
-    private final DouyinHotSearchService douyinService;
+    private final HotSearchSourceExecutor sourceExecutor;
     
-    public ThirdPartyHotSearchService(WeiboHotSearchService weiboService,
-                                     BilibiliHotSearchService bilibiliService,
-                                     ToutiaoHotSearchService toutiaoService,
-                                     DouyinHotSearchService douyinService) {
-        this.weiboService = weiboService;
-        this.bilibiliService = bilibiliService;
-        this.toutiaoService = toutiaoService;
-        this.douyinService = douyinService;
+    public ThirdPartyHotSearchService(HotSearchSourceExecutor sourceExecutor) {
+        this.sourceExecutor = sourceExecutor;
     }
     
-    public List<HotSearchItem> fetchWeiboHotSearch() {
-        return weiboService.fetchHotSearch();
-    }
-    
-    public List<HotSearchItem> fetchBilibiliHotSearch() {
-        return bilibiliService.fetchHotSearch();
-    }
-    
-    public List<HotSearchItem> fetchToutiaoHotSearch() {
-        return toutiaoService.fetchHotSearch();
-    }
-    
-    public List<HotSearchItem> fetchDouyinHotSearch() {
-        return douyinService.fetchHotSearch();
+    /**
+     * 按平台爬取
+     *
+     * @param conditional 是否对支持的数据源发起条件请求
+     * @throws UpstreamNotModifiedException 条件请求命中，上游内容未变化
+     */
+    public List<HotSearchItem> fetchHotSearch(PlatformType platform, boolean conditional) {
+        return sourceExecutor.fetchHotSearch(platform, conditional);
     }
 }
@@ -0,0 +1,195 @@
+package org.xiaobuding.hotsearchaiplatform.service.platform;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 第三方聚合站点的会话管理
+ * 首页 Cookie 按 TTL 缓存并在各平台之间共享，只在过期或疑似鉴权失败后重新获取；
+ * 启动时从 Cookie 文件预热，刷新后回写，重启后可直接复用未过期的会话。
+ * Cookie 文件是运行时状态，默认位于不纳入版本库的 ./state 目录；
+ * 刷新按会话加锁，一个站点首页访问变慢不会阻塞其他会话
+ */
+@Component
+public class ThirdPartySessionManager {
+    private static final Logger logger = LoggerFactory.getLogger(ThirdPartySessionManager.class);
+
+    // mini.itunes123.com 会话在 Cookie 文件中的条目名
+    public static final String ITUNES123_SESSION = "ITUNES123";
+    public static final String ITUNES123_HOMEPAGE = "https://mini.itunes123.com/";
+
+    private record CachedSession(Map<String, String> cookies, LocalDateTime lastUpdated, LocalDateTime expiresAt) {
+        boolean isExpired() {
+            return expiresAt == null || !LocalDateTime.now().isBefore(expiresAt);
+        }
+    }
+
+    private final PlatformHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Path cookieFile;
+    private final long ttlMinutes;
+    private final Map<String, CachedSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Object> refreshLocks = new ConcurrentHashMap<>();
+    private final Object fileLock = new Object();
+
+    public ThirdPartySessionManager(PlatformHttpClient httpClient,
+                                    ObjectMapper objectMapper,
+                                    @Value("${hotsearch.cookie-file:./state/session-cookies.json}") String cookieFile,
+                                    @Value("${hotsearch.session.cookie-ttl-minutes:30}") long ttlMinutes) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.cookieFile = Paths.get(cookieFile);
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    /**
+     * 从 Cookie 文件预热会话，跳过已过期的条目
+     */
+    @PostConstruct
+    public void seedFromFile() {
+        if (!Files.exists(cookieFile)) {
+            logger.info("Cookie文件不存在，跳过会话预热: {}", cookieFile);
+            return;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(cookieFile.toFile());
+            Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> entry = fields.next();
+                CachedSession session = parseEntry(entry.getValue());
+                if (session != null && !session.isExpired()) {
+                    sessions.put(entry.getKey(), session);
+                    logger.info("从Cookie文件预热会话: {} ({} 个Cookie, 过期时间 {})",
+                            entry.getKey(), session.cookies().size(), session.expiresAt());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("读取Cookie文件失败，跳过会话预热: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取 mini.itunes123.com 的会话 Cookie，缓存过期时才重新访问首页
+     */
+    public Map<String, String> getItunes123Cookies() throws IOException {
+        return getCookies(ITUNES123_SESSION, ITUNES123_HOMEPAGE);
+    }
+
+    public Map<String, String> getCookies(String sessionName, String homepageUrl) throws IOException {
+        CachedSession session = sessions.get(sessionName);
+        if (session != null && !session.isExpired()) {
+            return session.cookies();
+        }
+        synchronized (refreshLocks.computeIfAbsent(sessionName, name -> new Object())) {
+            // 等锁期间可能已有其他平台刷新完成
+            session = sessions.get(sessionName);
+            if (session != null && !session.isExpired()) {
+                return session.cookies();
+            }
+            session = refresh(sessionName, homepageUrl);
+            return session.cookies();
+        }
+    }
+
+    /**
+     * 疑似鉴权失败（401/403 或返回空页面）时作废会话，下次请求重新获取
+     */
+    public void invalidate(String sessionName, String reason) {
+        if (sessions.remove(sessionName) != null) {
+            logger.warn("会话 {} 已作废: {}", sessionName, reason);
+        }
+    }
+
+    private CachedSession refresh(String sessionName, String homepageUrl) throws IOException {
+        logger.info("会话 {}: 访问首页建立Session - {}", sessionName, homepageUrl);
+        PlatformHttpClient.FetchResponse homepageResponse;
+        try {
+            homepageResponse = httpClient.get(homepageUrl, 15000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("访问首页被中断: " + homepageUrl, e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        CachedSession session = new CachedSession(
+                new LinkedHashMap<>(homepageResponse.cookies()), now, now.plusMinutes(ttlMinutes));
+        sessions.put(sessionName, session);
+        logger.info("会话 {}: 首页访问成功，获得Cookie: {}", sessionName, session.cookies().keySet());
+        persist(sessionName, session);
+        return session;
+    }
+
+    private CachedSession parseEntry(JsonNode node) {
+        String value = node.path("value").asText("");
+        String expiresAt = node.path("expiresAt").asText("");
+        if (value.isEmpty() || expiresAt.isEmpty()) {
+            return null;
+        }
+        Map<String, String> cookies = new LinkedHashMap<>();
+        for (String pair : value.split(";")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+        }
+        String lastUpdated = node.path("lastUpdated").asText("");
+        try {
+            return new CachedSession(cookies,
+                    lastUpdated.isEmpty() ? null : LocalDateTime.parse(lastUpdated),
+                    LocalDateTime.parse(expiresAt));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 回写会话到 Cookie 文件，保留文件中的其他条目
+     * 不同会话可能同时刷新，读改写整个文件需要串行
+     */
+    private void persist(String sessionName, CachedSession session) {
+        synchronized (fileLock) {
+            write(sessionName, session);
+        }
+    }
+
+    private void write(String sessionName, CachedSession session) {
+        try {
+            ObjectNode root = Files.exists(cookieFile)
+                    ? (ObjectNode) objectMapper.readTree(cookieFile.toFile())
+                    : objectMapper.createObjectNode();
+            StringBuilder value = new StringBuilder();
+            session.cookies().forEach((name, cookieValue) -> {
+                if (value.length() > 0) {
+                    value.append("; ");
+                }
+                value.append(name).append('=').append(cookieValue);
+            });
+            ObjectNode entry = root.putObject(sessionName);
+            entry.put("value", value.toString());
+            entry.put("lastUpdated", session.lastUpdated().toString());
+            entry.put("expiresAt", session.expiresAt().toString());
+            if (cookieFile.getParent() != null) {
+                Files.createDirectories(cookieFile.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(cookieFile.toFile(), root);
+        } catch (Exception e) {
+            logger.warn("回写Cookie文件失败: {}", e.getMessage());
+        }
+    }
+}
@@ -14,7 +14,7 @@ import org.xiaobuding.hotsearchaiplatform.service.CacheManagementService;
 
 /**
  * 应用启动时的初始化任务
- * 清空Redis缓存和数据库，确保没有旧数据
+ * 清空热搜缓存和数据库，确保没有旧数据（会话等其他 Redis 数据保留）
  */
 @Component
 public class ApplicationStartupTask {
@@ -56,9 +56,9 @@ public class ApplicationStartupTask {
                 logger.info("✅ Database is already empty");
             }
             
-            // 2. 清空Redis缓存
+            // 2. 清空热搜缓存（切换命名空间，旧键后台回收）
             cacheManagementService.clearAllCache();
-            logger.info("✅ Cleared all Redis cache");
+            logger.info("✅ Cleared hot search caches");
             
             logger.info("========================================");
             logger.info("✨ Startup cleanup completed successfully!");
@@ -73,7 +73,7 @@ public class ApplicationStartupTask {
                 hotSearchRepository.deleteAll();
                 logger.info("✅ Deleted all records (ID not reset)");
                 cacheManagementService.clearAllCache();
-                logger.info("✅ Cleared all Redis cache");
+                logger.info("✅ Cleared hot search caches");
             } catch (Exception fallbackError) {
                 logger.error("❌ Fallback also failed", fallbackError);
             }
@@ -1,20 +1,26 @@
 package org.xiaobuding.hotsearchaiplatform.service.task;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.service.HotSearchRefreshCoordinator;
 import org.xiaobuding.hotsearchaiplatform.service.HotSearchService;
+import org.xiaobuding.hotsearchaiplatform.service.platform.HotSearchSourceRegistry;
 
 /**
  * 热搜缓存预热任务
  * 定期后台更新缓存，确保用户查询时总能获得最新的缓存数据
  * 即使爬取失败，也不影响用户体验
+ * 每个平台是独立的周期任务，运行在定时任务线程池中，一个平台爬取变慢不会推迟其他平台的刷新
  */
 @Component
 public class HotSearchCacheWarmupTask {
@@ -22,13 +28,34 @@ public class HotSearchCacheWarmupTask {
     private static final Logger LOG = LoggerFactory.getLogger(HotSearchCacheWarmupTask.class);
 
     private final HotSearchService hotSearchService;
+    private final HotSearchRefreshCoordinator refreshCoordinator;
+    private final HotSearchSourceRegistry sourceRegistry;
+    private final ScheduledJobRunner jobRunner;
+    private final long initialDelayMs;
+    private final long staggerMs;
+    private final long intervalMs;
+    private final long jitterMs;
 
     // 存储各平台最后一次刷新时间
     private static final Map<PlatformType, LocalDateTime> lastRefreshTime = new ConcurrentHashMap<>();
     private static final Map<PlatformType, Boolean> lastRefreshSuccess = new ConcurrentHashMap<>();
 
-    public HotSearchCacheWarmupTask(HotSearchService hotSearchService) {
+    public HotSearchCacheWarmupTask(HotSearchService hotSearchService,
+                                    HotSearchRefreshCoordinator refreshCoordinator,
+                                    HotSearchSourceRegistry sourceRegistry,
+                                    ScheduledJobRunner jobRunner,
+                                    @Value("${hotsearch.scheduler.warmup.initial-delay-ms:5000}") long initialDelayMs,
+                                    @Value("${hotsearch.scheduler.warmup.stagger-ms:5000}") long staggerMs,
+                                    @Value("${hotsearch.scheduler.warmup.interval-ms:30000}") long intervalMs,
+                                    @Value("${hotsearch.scheduler.warmup.jitter-ms:3000}") long jitterMs) {
         this.hotSearchService = hotSearchService;
+        this.refreshCoordinator = refreshCoordinator;
+        this.sourceRegistry = sourceRegistry;
+        this.jobRunner = jobRunner;
+        this.initialDelayMs = initialDelayMs;
+        this.staggerMs = staggerMs;
+        this.intervalMs = intervalMs;
+        this.jitterMs = jitterMs;
     }
 
     /**
@@ -46,91 +73,45 @@ public class HotSearchCacheWarmupTask {
     }
 
     /**
-     * 每30秒预热一次B站缓存
-     * 失败时保持现有缓存，不影响用户查询
-     */
-    @Scheduled(fixedDelay = 30000, initialDelay = 5000) // 初始延迟5秒，后续每30秒执行一次
-    public void warmupBilibiliCache() {
-        LOG.info("========== 开始预热B站缓存 ==========");
-        long startTime = System.currentTimeMillis();
-
-        try {
-            hotSearchService.getHotSearchesByPlatform(PlatformType.BILIBILI);
-            long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.BILIBILI, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.BILIBILI, true);
-            LOG.info("========== B站缓存预热成功，耗时: {}ms ==========", duration);
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.BILIBILI, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.BILIBILI, false);
-            LOG.warn("========== B站缓存预热失败，耗时: {}ms，保持现有缓存 ==========", duration, e);
-        }
-    }
-
-    /**
-     * 每30秒预热一次微博缓存
-     */
-    @Scheduled(fixedDelay = 30000, initialDelay = 10000)
-    public void warmupWeiboCache() {
-        LOG.info("========== 开始预热微博缓存 ==========");
-        long startTime = System.currentTimeMillis();
-
-        try {
-            hotSearchService.getHotSearchesByPlatform(PlatformType.WEIBO);
-            long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.WEIBO, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.WEIBO, true);
-            LOG.info("========== 微博缓存预热成功，耗时: {}ms ==========", duration);
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.WEIBO, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.WEIBO, false);
-            LOG.warn("========== 微博缓存预热失败，耗时: {}ms，保持现有缓存 ==========", duration, e);
-        }
-    }
-
-    /**
-     * 每30秒预热一次今日头条缓存
+     * 应用就绪（启动清理完成）后为每个已配置数据源的平台注册预热任务，首次执行按平台错开
      */
-    @Scheduled(fixedDelay = 30000, initialDelay = 15000)
-    public void warmupTOUTIAOCache() {
-        LOG.info("========== 开始预热今日头条缓存 ==========");
-        long startTime = System.currentTimeMillis();
-
-        try {
-            hotSearchService.getHotSearchesByPlatform(PlatformType.TOUTIAO);
-            long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.TOUTIAO, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.TOUTIAO, true);
-            LOG.info("========== 今日头条缓存预热成功，耗时: {}ms ==========", duration);
-        } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.TOUTIAO, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.TOUTIAO, false);
-            LOG.warn("========== 今日头条缓存预热失败，耗时: {}ms，保持现有缓存 ==========", duration, e);
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleWarmups() {
+        List<PlatformType> platforms = sourceRegistry.platforms();
+        for (int i = 0; i < platforms.size(); i++) {
+            PlatformType platform = platforms.get(i);
+            jobRunner.register("warmup-" + platform.name().toLowerCase(), initialDelayMs + i * staggerMs,
+                    intervalMs, jitterMs, () -> warmup(platform));
         }
     }
 
     /**
-     * 每30秒预热一次抖音缓存
+     * 预热单个平台的缓存
+     * 失败时保持现有缓存，不影响用户查询
      */
-    @Scheduled(fixedDelay = 30000, initialDelay = 20000)
-    public void warmupDouyinCache() {
-        LOG.info("========== 开始预热抖音缓存 ==========");
+    void warmup(PlatformType platform) {
+        String name = sourceRegistry.get(platform).displayName();
+        LOG.info("========== 开始预热{}缓存 ==========", name);
         long startTime = System.currentTimeMillis();
 
         try {
-            hotSearchService.getHotSearchesByPlatform(PlatformType.DOUYIN);
+            // 本节点的请求或其他节点正在刷新该平台时跳过本轮
+            if (!refreshCoordinator.refreshIfIdle(HotSearchRefreshCoordinator.platformResource(platform),
+                    () -> hotSearchService.getHotSearchesByPlatform(platform))) {
+                LOG.info("{}正在由其他请求或节点刷新，跳过本轮预热", name);
+                return;
+            }
             long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.DOUYIN, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.DOUYIN, true);
-            LOG.info("========== 抖音缓存预热成功，耗时: {}ms ==========", duration);
+            lastRefreshTime.put(platform, LocalDateTime.now());
+            lastRefreshSuccess.put(platform, true);
+            LOG.info("========== {}缓存预热成功，耗时: {}ms ==========", name, duration);
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
-            lastRefreshTime.put(PlatformType.DOUYIN, LocalDateTime.now());
-            lastRefreshSuccess.put(PlatformType.DOUYIN, false);
-            LOG.warn("========== 抖音缓存预热失败，耗时: {}ms，保持现有缓存 ==========", duration, e);
+            lastRefreshTime.put(platform, LocalDateTime.now());
+            lastRefreshSuccess.put(platform, false);
+            LOG.warn("========== {}缓存预热失败，耗时: {}ms，保持现有缓存 ==========", name, duration, e);
+            // 交给执行器记录失败次数
+            throw e;
         }
     }
 }
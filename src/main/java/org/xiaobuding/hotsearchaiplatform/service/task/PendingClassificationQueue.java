@@ -0,0 +1,302 @@
+package org.xiaobuding.hotsearchaiplatform.service.task;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.xiaobuding.hotsearchaiplatform.config.ThreadingMode;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.repository.HotSearchRepository;
+import org.xiaobuding.hotsearchaiplatform.service.CategoryClassificationService;
+import org.xiaobuding.hotsearchaiplatform.service.HotSearchCacheService;
+import org.xiaobuding.hotsearchaiplatform.service.HotSearchUpdateBroadcaster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 待分类热搜队列
+ * 接口只把待分类条目的 id 放入有界、去重的队列后立即返回；后台单线程等待一个合并窗口，
+ * 让同一波请求提交的 id 合并成一批，再按批重新读库、分类，逐行用带条件的 UPDATE 写回分类，
+ * 并只修补缓存中实际改写的条目。不合并整行实体，不会覆盖期间采集写入的排名、热度，也不会因行已删除而中断整批。
+ * 队列满时丢弃新提交的 id，这些条目在之后的请求中会被再次提交。
+ * 没有拿到分类的条目重新入队：已发送给大模型但没有结果（调用失败、限流、返回为空）的计一次尝试，
+ * 累计 max-llm-attempts 次后写入关键词推断的分类，不会一直停留在 pending
+ */
+@Component
+public class PendingClassificationQueue {
+    private static final Logger logger = LoggerFactory.getLogger(PendingClassificationQueue.class);
+
+    /**
+     * 队列统计快照
+     */
+    public record QueueStats(int pending,
+                             int capacity,
+                             long enqueued,
+                             long coalesced,
+                             long dropped,
+                             long batches,
+                             long classified,
+                             long fallbacks,
+                             long failures) {
+    }
+
+    private final HotSearchRepository hotSearchRepository;
+    private final CategoryClassificationService categoryClassificationService;
+    private final HotSearchCacheService cacheService;
+    private final HotSearchUpdateBroadcaster updateBroadcaster;
+    private final int capacity;
+    private final int batchSize;
+    private final long coalesceMs;
+    private final int maxLlmAttempts;
+    private final Thread worker;
+    // 各 id 已尝试大模型分类的次数，只由后台线程访问；写回或条目不再需要分类时移除
+    private final Map<Long, Integer> llmAttempts = new HashMap<>();
+
+    private final Object lock = new Object();
+    private final LinkedHashSet<Long> pending = new LinkedHashSet<>();
+    private volatile boolean running = true;
+    private long enqueued;
+    private long coalesced;
+    private long dropped;
+    private long batches;
+    private long classified;
+    private long fallbacks;
+    private long failures;
+
+    public PendingClassificationQueue(HotSearchRepository hotSearchRepository,
+                                      CategoryClassificationService categoryClassificationService,
+                                      HotSearchCacheService cacheService,
+                                      HotSearchUpdateBroadcaster updateBroadcaster,
+                                      ThreadingMode threadingMode,
+                                      @Value("${hotsearch.classification.queue.capacity:2000}") int capacity,
+                                      @Value("${hotsearch.classification.queue.batch-size:100}") int batchSize,
+                                      @Value("${hotsearch.classification.queue.coalesce-ms:500}") long coalesceMs,
+                                      @Value("${hotsearch.classification.queue.max-llm-attempts:3}") int maxLlmAttempts) {
+        this.hotSearchRepository = hotSearchRepository;
+        this.categoryClassificationService = categoryClassificationService;
+        this.cacheService = cacheService;
+        this.updateBroadcaster = updateBroadcaster;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.coalesceMs = coalesceMs;
+        this.maxLlmAttempts = Math.max(1, maxLlmAttempts);
+        if (threadingMode.isVirtual()) {
+            this.worker = threadingMode.virtualThreadFactory("classification-worker-").newThread(this::runWorker);
+        } else {
+            this.worker = new Thread(this::runWorker, "classification-worker");
+            this.worker.setDaemon(true);
+        }
+    }
+
+    /**
+     * 是否需要（重新）分类
+     */
+    public static boolean needsClassification(HotSearchItem item) {
+        String category = item.getCategory();
+        return category == null || "pending".equals(category) || "other".equals(category) || "evaluating".equals(category);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.start();
+        logger.info("分类队列已启动: 容量 {}, 批大小 {}, 合并窗口 {}ms, 大模型最多尝试 {} 次",
+                capacity, batchSize, coalesceMs, maxLlmAttempts);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * 提交待分类条目，只入队 id，不阻塞调用方
+     *
+     * @return 本次新入队的条目数
+     */
+    public int submit(Collection<HotSearchItem> items) {
+        int added = 0;
+        synchronized (lock) {
+            for (HotSearchItem item : items) {
+                if (item.getId() == null || !needsClassification(item)) {
+                    continue;
+                }
+                if (pending.contains(item.getId())) {
+                    coalesced++;
+                } else if (pending.size() >= capacity) {
+                    dropped++;
+                } else {
+                    pending.add(item.getId());
+                    added++;
+                }
+            }
+            if (added > 0) {
+                enqueued += added;
+                lock.notifyAll();
+            }
+        }
+        return added;
+    }
+
+    public QueueStats stats() {
+        synchronized (lock) {
+            return new QueueStats(pending.size(), capacity, enqueued, coalesced, dropped, batches, classified, fallbacks, failures);
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                List<Long> batch = takeBatch();
+                if (!batch.isEmpty()) {
+                    processBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                synchronized (lock) {
+                    failures++;
+                }
+                logger.error("分类批次处理失败", e);
+            }
+        }
+        logger.info("分类队列已停止");
+    }
+
+    /**
+     * 等待队列非空；不足一批时再等一个合并窗口，然后按入队顺序取出最多 batchSize 个 id
+     */
+    private List<Long> takeBatch() throws InterruptedException {
+        boolean fullBatch;
+        synchronized (lock) {
+            while (pending.isEmpty()) {
+                lock.wait();
+            }
+            fullBatch = pending.size() >= batchSize;
+        }
+        if (!fullBatch && coalesceMs > 0) {
+            Thread.sleep(coalesceMs);
+        }
+        List<Long> batch = new ArrayList<>(batchSize);
+        synchronized (lock) {
+            Iterator<Long> iterator = pending.iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        return batch;
+    }
+
+    private void processBatch(List<Long> ids) {
+        long startTime = System.currentTimeMillis();
+        // 重新读库：入队后条目可能已被新一轮采集替换或已分类
+        List<HotSearchItem> items = new ArrayList<>();
+        for (HotSearchItem item : hotSearchRepository.findAllById(ids)) {
+            if (needsClassification(item)) {
+                if ("evaluating".equals(item.getCategory())) {
+                    item.setCategory("pending");
+                }
+                items.add(item);
+            }
+        }
+        // 已删除或已分类的条目不再重试
+        Set<Long> remaining = new HashSet<>();
+        items.forEach(item -> remaining.add(item.getId()));
+        ids.stream().filter(id -> !remaining.contains(id)).forEach(llmAttempts::remove);
+        if (items.isEmpty()) {
+            return;
+        }
+        List<HotSearchItem> classifiedItems;
+        try {
+            classifiedItems = categoryClassificationService.classifyItems(items);
+        } catch (Exception e) {
+            // 与大模型没有给出结果一样计一次尝试
+            logger.warn("分类批次调用失败，{} 条按未分类处理: {}", items.size(), e.getMessage());
+            items.forEach(item -> item.setCategory("evaluating"));
+            classifiedItems = items;
+        }
+        List<HotSearchItem> updated = new ArrayList<>(classifiedItems.size());
+        List<Long> retry = new ArrayList<>();
+        int fallback = 0;
+        for (HotSearchItem item : classifiedItems) {
+            if (needsClassification(item)) {
+                // pending 表示超出单批上限没有发送，不计尝试次数
+                int attempts = "evaluating".equals(item.getCategory())
+                        ? llmAttempts.merge(item.getId(), 1, Integer::sum)
+                        : llmAttempts.getOrDefault(item.getId(), 0);
+                if (attempts < maxLlmAttempts) {
+                    retry.add(item.getId());
+                    continue;
+                }
+                item.setCategory(categoryClassificationService.classifyTitleByKeywords(item.getTitle()));
+                fallback++;
+            }
+            llmAttempts.remove(item.getId());
+            if (hotSearchRepository.updateCategoryIfUnclassified(item.getId(), item.getCategory()) > 0) {
+                updated.add(item);
+            }
+        }
+        if (!updated.isEmpty()) {
+            patchCaches(updated);
+            updateBroadcaster.publishCategories(updated);
+        }
+        int requeued = requeue(retry);
+        synchronized (lock) {
+            batches++;
+            classified += updated.size();
+            fallbacks += fallback;
+        }
+        logger.info("分类批次完成: {} 个 id, {} 条待分类, {} 条写回（{} 条使用关键词兜底）, {} 条重新入队, 耗时 {}ms",
+                ids.size(), classifiedItems.size(), updated.size(), fallback, requeued,
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 没有拿到大模型结果的 id 放回队尾，队列已满时丢弃（之后的请求会再次提交）
+     */
+    private int requeue(List<Long> ids) {
+        int added = 0;
+        synchronized (lock) {
+            for (Long id : ids) {
+                if (pending.contains(id)) {
+                    continue;
+                }
+                if (pending.size() >= capacity) {
+                    dropped++;
+                    continue;
+                }
+                pending.add(id);
+                added++;
+            }
+            if (added > 0) {
+                lock.notifyAll();
+            }
+        }
+        return added;
+    }
+
+    private void patchCaches(List<HotSearchItem> classifiedItems) {
+        Map<Long, String> categories = new HashMap<>();
+        Set<PlatformType> platforms = EnumSet.noneOf(PlatformType.class);
+        for (HotSearchItem item : classifiedItems) {
+            categories.put(item.getId(), item.getCategory());
+            platforms.add(item.getPlatform());
+        }
+        cacheService.patchCategories(platforms, categories);
+    }
+}
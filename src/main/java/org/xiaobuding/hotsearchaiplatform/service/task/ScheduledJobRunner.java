@@ -0,0 +1,177 @@
+package org.xiaobuding.hotsearchaiplatform.service.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 周期任务执行器
+ * 每个任务在上一次执行结束后才按 "间隔 + 随机抖动" 安排下一次，同一任务不会重叠执行；
+ * 记录每次实际开始时间相对计划时间的延迟（lag），用于判断线程池是否被慢任务占满
+ */
+@Component
+public class ScheduledJobRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJobRunner.class);
+    // 平均延迟的滑动平均权重
+    private static final double LAG_ALPHA = 0.2;
+
+    /**
+     * 任务运行统计
+     */
+    public record JobStats(String name,
+                           long intervalMs,
+                           long jitterMs,
+                           boolean running,
+                           long runs,
+                           long failures,
+                           long skippedOverlaps,
+                           long lastLagMs,
+                           long avgLagMs,
+                           long maxLagMs,
+                           long lastDurationMs,
+                           LocalDateTime lastStartedAt,
+                           boolean lastSuccess,
+                           LocalDateTime nextRunAt) {
+    }
+
+    private final TaskScheduler taskScheduler;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ScheduledJobRunner(TaskScheduler taskScheduler) {
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * 注册周期任务，重复注册同名任务时忽略
+     *
+     * @param initialDelayMs 首次执行延迟
+     * @param intervalMs     上一次结束到下一次开始的间隔
+     * @param jitterMs       每次在间隔上额外增加 [0, jitterMs) 的随机延迟，避免多个任务同时打到上游
+     * @param task           抛出异常视为本次失败，不影响后续调度
+     */
+    public void register(String name, long initialDelayMs, long intervalMs, long jitterMs, Runnable task) {
+        Job job = new Job(name, intervalMs, jitterMs, task);
+        if (jobs.putIfAbsent(name, job) != null) {
+            logger.warn("定时任务 {} 已注册，忽略重复注册", name);
+            return;
+        }
+        schedule(job, initialDelayMs + job.jitter());
+        logger.info("注册定时任务 {}: 间隔 {}ms, 抖动 {}ms, 首次延迟 {}ms", name, intervalMs, jitterMs, initialDelayMs);
+    }
+
+    /**
+     * 所有任务的统计，按任务名排序
+     */
+    public List<JobStats> stats() {
+        List<JobStats> stats = new ArrayList<>(jobs.size());
+        for (Job job : jobs.values()) {
+            stats.add(job.snapshot());
+        }
+        stats.sort((a, b) -> a.name().compareTo(b.name()));
+        return stats;
+    }
+
+    private void schedule(Job job, long delayMs) {
+        long plannedAt = System.currentTimeMillis() + delayMs;
+        synchronized (job) {
+            job.plannedAtMillis = plannedAt;
+        }
+        try {
+            taskScheduler.schedule(() -> run(job), Instant.ofEpochMilli(plannedAt));
+        } catch (TaskRejectedException e) {
+            // 应用关闭中，调度器已停止接收任务
+            logger.info("定时任务 {} 停止调度: {}", job.name, e.getMessage());
+        }
+    }
+
+    private void run(Job job) {
+        if (!job.running.compareAndSet(false, true)) {
+            // 正常调度下不会发生，防止同一任务被重复触发
+            synchronized (job) {
+                job.skippedOverlaps++;
+            }
+            logger.warn("定时任务 {} 上一次尚未结束，跳过本次触发", job.name);
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        boolean success = false;
+        try {
+            synchronized (job) {
+                long lag = Math.max(0, startedAt - job.plannedAtMillis);
+                job.lastLagMs = lag;
+                job.avgLagMs = job.runs == 0 ? lag : job.avgLagMs * (1 - LAG_ALPHA) + lag * LAG_ALPHA;
+                job.maxLagMs = Math.max(job.maxLagMs, lag);
+                job.lastStartedAt = startedAt;
+                job.runs++;
+                if (lag > job.intervalMs) {
+                    logger.warn("定时任务 {} 延迟 {}ms 才开始执行，调度线程池可能不足", job.name, lag);
+                }
+            }
+            job.task.run();
+            success = true;
+        } catch (Exception e) {
+            logger.warn("定时任务 {} 执行失败: {}", job.name, e.getMessage(), e);
+        } finally {
+            synchronized (job) {
+                job.lastDurationMs = System.currentTimeMillis() - startedAt;
+                job.lastSuccess = success;
+                if (!success) {
+                    job.failures++;
+                }
+            }
+            job.running.set(false);
+            schedule(job, job.intervalMs + job.jitter());
+        }
+    }
+
+    private static final class Job {
+        private final String name;
+        private final long intervalMs;
+        private final long jitterMs;
+        private final Runnable task;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private long plannedAtMillis;
+        private long runs;
+        private long failures;
+        private long skippedOverlaps;
+        private long lastLagMs;
+        private double avgLagMs;
+        private long maxLagMs;
+        private long lastDurationMs;
+        private long lastStartedAt;
+        private boolean lastSuccess;
+
+        private Job(String name, long intervalMs, long jitterMs, Runnable task) {
+            this.name = name;
+            this.intervalMs = intervalMs;
+            this.jitterMs = jitterMs;
+            this.task = task;
+        }
+
+        private long jitter() {
+            return jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0;
+        }
+
+        private synchronized JobStats snapshot() {
+            return new JobStats(name, intervalMs, jitterMs, running.get(), runs, failures, skippedOverlaps,
+                    lastLagMs, Math.round(avgLagMs), maxLagMs, lastDurationMs,
+                    toDateTime(lastStartedAt), lastSuccess, toDateTime(plannedAtMillis));
+        }
+
+        private static LocalDateTime toDateTime(long epochMillis) {
+            return epochMillis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        }
+    }
+}
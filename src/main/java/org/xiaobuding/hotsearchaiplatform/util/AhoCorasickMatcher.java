@@ -0,0 +1,226 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 基于字符的 Aho-Corasick 多模式匹配自动机
+ * 构建后不可变、线程安全；一次扫描文本即可报告所有模式的出现位置，匹配过程不分配对象。
+ * 状态转移按状态存为有序字符数组（二分查找），适合中文这类大字符集；
+ * 每个状态的输出已合并失败链上的所有模式
+ */
+public final class AhoCorasickMatcher {
+
+    /**
+     * 匹配回调：模式在文本中每出现一次回调一次，patternId 为 {@link Builder#add} 返回的编号
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int patternId);
+    }
+
+    private final String[] patterns;
+    // 状态 s 的出边为 edgeChars/edgeTargets[edgeStart[s], edgeStart[s + 1])，按字符升序
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] fail;
+    // 状态 s 的输出为 outputs[outputStart[s], outputStart[s + 1])
+    private final int[] outputStart;
+    private final int[] outputs;
+
+    private AhoCorasickMatcher(String[] patterns, int[] edgeStart, char[] edgeChars, int[] edgeTargets,
+                               int[] fail, int[] outputStart, int[] outputs) {
+        this.patterns = patterns;
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputStart = outputStart;
+        this.outputs = outputs;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    public String pattern(int patternId) {
+        return patterns[patternId];
+    }
+
+    /**
+     * 扫描文本，对每次出现的模式回调 handler（同一模式出现多次会回调多次）
+     */
+    public void match(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            for (int o = outputStart[state], end = outputStart[state + 1]; o < end; o++) {
+                handler.onMatch(outputs[o]);
+            }
+        }
+    }
+
+    /**
+     * 文本是否包含任一模式
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            if (outputStart[state] < outputStart[state + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int transition(int state, char c) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = edgeChars[mid];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 自动机构建器，非线程安全
+     */
+    public static final class Builder {
+        private final List<String> patterns = new ArrayList<>();
+        private final Map<String, Integer> patternIds = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 添加模式并返回其编号；重复添加同一字符串返回同一编号
+         */
+        public int add(String pattern) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("模式不能为空");
+            }
+            Integer existing = patternIds.get(pattern);
+            if (existing != null) {
+                return existing;
+            }
+            int id = patterns.size();
+            patterns.add(pattern);
+            patternIds.put(pattern, id);
+            return id;
+        }
+
+        public AhoCorasickMatcher build() {
+            // 1. 构建字典树
+            List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+            List<List<Integer>> terminal = new ArrayList<>();
+            trie.add(new TreeMap<>());
+            terminal.add(new ArrayList<>());
+            for (int id = 0; id < patterns.size(); id++) {
+                String pattern = patterns.get(id);
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    Integer next = trie.get(state).get(pattern.charAt(i));
+                    if (next == null) {
+                        next = trie.size();
+                        trie.get(state).put(pattern.charAt(i), next);
+                        trie.add(new TreeMap<>());
+                        terminal.add(new ArrayList<>());
+                    }
+                    state = next;
+                }
+                terminal.get(state).add(id);
+            }
+
+            // 2. 扁平化出边
+            int stateCount = trie.size();
+            int edgeCount = stateCount - 1;
+            int[] edgeStart = new int[stateCount + 1];
+            char[] edgeChars = new char[edgeCount];
+            int[] edgeTargets = new int[edgeCount];
+            int e = 0;
+            for (int s = 0; s < stateCount; s++) {
+                edgeStart[s] = e;
+                for (Map.Entry<Character, Integer> edge : trie.get(s).entrySet()) {
+                    edgeChars[e] = edge.getKey();
+                    edgeTargets[e] = edge.getValue();
+                    e++;
+                }
+            }
+            edgeStart[stateCount] = e;
+
+            // 3. 广度优先计算失败指针，并把失败状态的输出并入当前状态
+            int[] fail = new int[stateCount];
+            List<List<Integer>> merged = new ArrayList<>(terminal);
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : trie.get(0).values()) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : trie.get(state).entrySet()) {
+                    char c = edge.getKey();
+                    int child = edge.getValue();
+                    int f = fail[state];
+                    Integer target;
+                    while ((target = trie.get(f).get(c)) == null && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = target != null && target != child ? target : 0;
+                    if (!merged.get(fail[child]).isEmpty()) {
+                        List<Integer> outputs = new ArrayList<>(merged.get(child));
+                        outputs.addAll(merged.get(fail[child]));
+                        merged.set(child, outputs);
+                    }
+                    queue.add(child);
+                }
+            }
+
+            // 4. 扁平化输出
+            int[] outputStart = new int[stateCount + 1];
+            int total = 0;
+            for (int s = 0; s < stateCount; s++) {
+                outputStart[s] = total;
+                total += merged.get(s).size();
+            }
+            outputStart[stateCount] = total;
+            int[] outputs = new int[total];
+            for (int s = 0; s < stateCount; s++) {
+                int o = outputStart[s];
+                for (int id : merged.get(s)) {
+                    outputs[o++] = id;
+                }
+            }
+
+            return new AhoCorasickMatcher(patterns.toArray(new String[0]), edgeStart, edgeChars, edgeTargets,
+                    fail, outputStart, outputs);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * 有界 LRU 缓存
+ * 同时限制条目数和估算字节数，超出任一上限时淘汰最久未访问的条目；
+ * 记录命中、未命中和淘汰次数。读写都在同一把锁内完成（访问顺序的 LinkedHashMap 读也会修改链表），
+ * 适合每次刷新几百次查询的低并发场景
+ */
+public class BoundedLruCache<K, V> {
+
+    /**
+     * 缓存统计快照
+     */
+    public record Stats(int entries,
+                        long estimatedBytes,
+                        int maxEntries,
+                        long maxBytes,
+                        long hits,
+                        long misses,
+                        long evictions) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ToLongBiFunction<K, V> weigher;
+    private final LinkedHashMap<K, V> entries;
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param weigher 估算单个条目（含键、值和映射开销）占用的字节数
+     */
+    public BoundedLruCache(int maxEntries, long maxBytes, ToLongBiFunction<K, V> weigher) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("缓存上限必须大于0");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * 字符串键值缓存的字节估算：两个 String 对象（对象头 + 数组头 + 每字符 2 字节）加映射节点开销
+     */
+    public static long estimateStringEntry(String key, String value) {
+        return 96 + 2L * key.length() + (value == null ? 0 : 2L * value.length());
+    }
+
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        long weight = weigher.applyAsLong(key, value);
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            estimatedBytes -= weigher.applyAsLong(key, previous);
+        }
+        estimatedBytes += weight;
+        evictIfNeeded();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        estimatedBytes = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), estimatedBytes, maxEntries, maxBytes, hits, misses, evictions);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || estimatedBytes > maxBytes) && eldest.hasNext()) {
+            Map.Entry<K, V> entry = eldest.next();
+            estimatedBytes -= weigher.applyAsLong(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+
+import java.util.List;
+
+/**
+ * 热搜榜单内容指纹
+ * 对解析结果的 (标题, 排名, 热度) 序列做 64 位 FNV-1a 哈希，用于判断两次采集的榜单是否完全一致；
+ * 也用于对序列化好的响应字节生成 ETag
+ */
+public class HotSearchFingerprint {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private HotSearchFingerprint() {
+    }
+
+    public static long of(List<HotSearchItem> items) {
+        long hash = FNV_OFFSET_BASIS;
+        for (HotSearchItem item : items) {
+            String title = item.getTitle();
+            if (title != null) {
+                for (int i = 0; i < title.length(); i++) {
+                    hash = mix(hash, title.charAt(i));
+                }
+            }
+            // 分隔符避免 "ab"+"c" 与 "a"+"bc" 之类的拼接碰撞
+            hash = mix(hash, 0x1F);
+            hash = mix(hash, item.getRank() != null ? item.getRank() : -1);
+            long heat = item.getHeat() != null ? item.getHeat() : -1L;
+            hash = mix(hash, (int) heat);
+            hash = mix(hash, (int) (heat >>> 32));
+        }
+        return hash;
+    }
+
+    /**
+     * 字节内容的 64 位 FNV-1a 哈希
+     */
+    public static long of(byte[] data) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : data) {
+            hash = mix(hash, b & 0xFF);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+}
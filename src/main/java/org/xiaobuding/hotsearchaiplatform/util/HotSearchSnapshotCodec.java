@@ -0,0 +1,414 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 热搜列表快照的二进制编码
+ * 格式：魔数 'H'、格式版本、标志位（bit0 表示正文经过 Deflate 压缩，此时紧跟原始长度），然后是正文。
+ * 正文按列存放：条目数、字符串字典（平台、分类、实际来源、降级原因等低基数字段），
+ * 再依次是 id（与上一条的差值）、标题、平台、热度、排名、抓取时间（UTC 秒，与上一条的差值）、
+ * 分类、实际来源、降级原因、链接（与上一条链接共享前缀）。
+ * 整数用 zigzag + varint，可空字段以 0 表示 null、其余值加 1；抓取时间只保留到秒。
+ * 正文超过 {@value #COMPRESS_THRESHOLD} 字节且压缩后更小时才压缩
+ */
+public final class HotSearchSnapshotCodec {
+    private static final byte MAGIC = 'H';
+    private static final byte FORMAT_VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int COMPRESS_THRESHOLD = 512;
+    // 解码时拒绝的异常长度，防止损坏的数据申请过大的数组
+    private static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+    private HotSearchSnapshotCodec() {
+    }
+
+    public static byte[] encode(List<HotSearchItem> items) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> words = new ArrayList<>();
+        for (HotSearchItem item : items) {
+            for (String word : dictionaryFields(item)) {
+                if (word != null && dictionary.putIfAbsent(word, words.size()) == null) {
+                    words.add(word);
+                }
+            }
+        }
+
+        Writer body = new Writer(64 + items.size() * 48);
+        body.writeUnsigned(items.size());
+        body.writeUnsigned(words.size());
+        for (String word : words) {
+            body.writeString(word);
+        }
+        long previousId = 0;
+        for (HotSearchItem item : items) {
+            if (item.getId() == null) {
+                body.writeUnsigned(0);
+            } else {
+                body.writeNullableSigned(item.getId() - previousId);
+                previousId = item.getId();
+            }
+        }
+        for (HotSearchItem item : items) {
+            body.writeNullableString(item.getTitle());
+        }
+        for (HotSearchItem item : items) {
+            body.writeWord(item.getPlatform() == null ? null : item.getPlatform().name(), dictionary);
+        }
+        for (HotSearchItem item : items) {
+            body.writeNullableSigned(item.getHeat());
+        }
+        for (HotSearchItem item : items) {
+            body.writeNullableSigned(item.getRank() == null ? null : item.getRank().longValue());
+        }
+        long previousSecond = 0;
+        for (HotSearchItem item : items) {
+            if (item.getCapturedAt() == null) {
+                body.writeUnsigned(0);
+            } else {
+                long second = item.getCapturedAt().toEpochSecond(ZoneOffset.UTC);
+                body.writeNullableSigned(second - previousSecond);
+                previousSecond = second;
+            }
+        }
+        for (HotSearchItem item : items) {
+            body.writeWord(item.getCategory(), dictionary);
+        }
+        for (HotSearchItem item : items) {
+            body.writeWord(item.getActualSource(), dictionary);
+        }
+        for (HotSearchItem item : items) {
+            body.writeWord(item.getDegradedReason(), dictionary);
+        }
+        String previousUrl = "";
+        for (HotSearchItem item : items) {
+            String url = item.getUrl();
+            if (url == null) {
+                body.writeUnsigned(0);
+                continue;
+            }
+            int prefix = commonPrefix(previousUrl, url);
+            body.writeUnsigned(prefix + 1L);
+            body.writeString(url.substring(prefix));
+            previousUrl = url;
+        }
+
+        byte[] raw = body.toByteArray();
+        byte[] compressed = raw.length > COMPRESS_THRESHOLD ? deflate(raw) : null;
+        Writer out = new Writer(8 + (compressed != null ? compressed.length : raw.length));
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        if (compressed != null) {
+            out.writeByte(FLAG_DEFLATE);
+            out.writeUnsigned(raw.length);
+            out.writeBytes(compressed);
+        } else {
+            out.writeByte(0);
+            out.writeBytes(raw);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException 数据不是本编码（如旧版本写入的 JSON）、版本不支持或已损坏
+     */
+    public static List<HotSearchItem> decode(byte[] data) {
+        if (data == null || data.length < 3 || data[0] != MAGIC) {
+            throw new IllegalArgumentException("不是热搜快照编码");
+        }
+        if (data[1] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的热搜快照版本: " + data[1]);
+        }
+        Reader in = new Reader(data, 3);
+        if ((data[2] & FLAG_DEFLATE) != 0) {
+            int rawLength = in.readLength();
+            in = new Reader(inflate(data, in.position, rawLength), 0);
+        }
+
+        int count = in.readLength();
+        // 每条至少占每列一个字节
+        if (count > in.remaining()) {
+            throw new IllegalArgumentException("热搜快照已损坏: 条目数 " + count);
+        }
+        int wordCount = in.readLength();
+        String[] words = new String[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = in.readString();
+        }
+        List<HotSearchItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new HotSearchItem());
+        }
+        long previousId = 0;
+        for (HotSearchItem item : items) {
+            Long delta = in.readNullableSigned();
+            if (delta != null) {
+                previousId += delta;
+                item.setId(previousId);
+            }
+        }
+        for (HotSearchItem item : items) {
+            item.setTitle(in.readNullableString());
+        }
+        for (HotSearchItem item : items) {
+            String platform = in.readWord(words);
+            item.setPlatform(platform == null ? null : PlatformType.valueOf(platform));
+        }
+        for (HotSearchItem item : items) {
+            item.setHeat(in.readNullableSigned());
+        }
+        for (HotSearchItem item : items) {
+            Long rank = in.readNullableSigned();
+            item.setRank(rank == null ? null : rank.intValue());
+        }
+        long previousSecond = 0;
+        for (HotSearchItem item : items) {
+            Long delta = in.readNullableSigned();
+            if (delta != null) {
+                previousSecond += delta;
+                item.setCapturedAt(LocalDateTime.ofEpochSecond(previousSecond, 0, ZoneOffset.UTC));
+            }
+        }
+        for (HotSearchItem item : items) {
+            item.setCategory(in.readWord(words));
+        }
+        for (HotSearchItem item : items) {
+            item.setActualSource(in.readWord(words));
+        }
+        for (HotSearchItem item : items) {
+            item.setDegradedReason(in.readWord(words));
+        }
+        String previousUrl = "";
+        for (HotSearchItem item : items) {
+            long prefix = in.readUnsigned();
+            if (prefix == 0) {
+                continue;
+            }
+            if (prefix - 1 > previousUrl.length()) {
+                throw new IllegalArgumentException("热搜快照已损坏: 链接前缀越界");
+            }
+            String url = previousUrl.substring(0, (int) (prefix - 1)) + in.readString();
+            item.setUrl(url);
+            previousUrl = url;
+        }
+        return items;
+    }
+
+    private static String[] dictionaryFields(HotSearchItem item) {
+        return new String[]{
+                item.getPlatform() == null ? null : item.getPlatform().name(),
+                item.getCategory(), item.getActualSource(), item.getDegradedReason()};
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        // 不在代理对中间截断，否则后缀无法按 UTF-8 编码
+        if (i > 0 && Character.isHighSurrogate(b.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+                if (out.size() >= raw.length) {
+                    // 压缩无收益，保留原文
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, rawLength - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != rawLength || !inflater.finished()) {
+                throw new IllegalArgumentException("热搜快照已损坏: 解压长度不符");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("热搜快照已损坏: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        Writer(int capacity) {
+            buffer = new byte[Math.max(16, capacity)];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeUnsigned(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeNullableSigned(Long value) {
+            writeUnsigned(value == null ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length);
+            writeBytes(bytes);
+        }
+
+        void writeNullableString(String value) {
+            if (value == null) {
+                writeUnsigned(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+
+        void writeWord(String value, Map<String, Integer> dictionary) {
+            writeUnsigned(value == null ? 0 : dictionary.get(value) + 1L);
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, size + extra)];
+                System.arraycopy(buffer, 0, grown, 0, size);
+                buffer = grown;
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        int remaining() {
+            return data.length - position;
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new IllegalArgumentException("热搜快照已损坏: 数据不完整");
+                }
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("热搜快照已损坏: varint 过长");
+        }
+
+        int readLength() {
+            long length = readUnsigned();
+            if (length > MAX_LENGTH) {
+                throw new IllegalArgumentException("热搜快照已损坏: 长度 " + length);
+            }
+            return (int) length;
+        }
+
+        Long readNullableSigned() {
+            long value = readUnsigned();
+            if (value == 0) {
+                return null;
+            }
+            value--;
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            return readBytesAsString(readLength());
+        }
+
+        String readNullableString() {
+            int length = readLength();
+            return length == 0 ? null : readBytesAsString(length - 1);
+        }
+
+        String readWord(String[] words) {
+            long index = readUnsigned();
+            if (index == 0) {
+                return null;
+            }
+            if (index > words.length) {
+                throw new IllegalArgumentException("热搜快照已损坏: 字典下标越界");
+            }
+            return words[(int) index - 1];
+        }
+
+        private String readBytesAsString(int length) {
+            if (length > data.length - position) {
+                throw new IllegalArgumentException("热搜快照已损坏: 数据不完整");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
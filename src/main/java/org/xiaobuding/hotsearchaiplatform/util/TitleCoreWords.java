@@ -0,0 +1,53 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+/**
+ * 标题核心词
+ * 去除数字、空白和 ASCII 标点，保留主要关键词，最多取前 20 个字符；用作分类缓存的 key，
+ * 排名、热度数字不同的同一话题命中同一条缓存
+ */
+public class TitleCoreWords {
+    // 核心词最多保留的字符数
+    static final int MAX_LENGTH = 20;
+
+    private TitleCoreWords() {
+    }
+
+    /**
+     * 与 replaceAll("[0-9\\s\\p{Punct}]", "") 后截断等价，标题无需处理时直接返回原字符串
+     */
+    public static String extract(String title) {
+        int length = title.length();
+        char[] core = null;
+        int size = 0;
+        for (int i = 0; i < length && size < MAX_LENGTH; i++) {
+            char c = title.charAt(i);
+            if (isIgnored(c)) {
+                if (core == null) {
+                    core = new char[Math.min(length, MAX_LENGTH)];
+                    title.getChars(0, i, core, 0);
+                    size = i;
+                }
+                continue;
+            }
+            if (core != null) {
+                core[size] = c;
+            }
+            size++;
+        }
+        if (core == null) {
+            return size == length ? title : title.substring(0, size);
+        }
+        return new String(core, 0, size);
+    }
+
+    // [0-9]、\s（空格 \t \n \x0B \f \r）和 \p{Punct}（ASCII 标点）
+    private static boolean isIgnored(char c) {
+        if (c >= '0' && c <= '9') {
+            return true;
+        }
+        if (c == ' ' || (c >= '\t' && c <= '\r')) {
+            return true;
+        }
+        return (c >= '!' && c <= '/') || (c >= ':' && c <= '@') || (c >= '[' && c <= '`') || (c >= '{' && c <= '~');
+    }
+}
@@ -0,0 +1,149 @@
+package org.xiaobuding.hotsearchaiplatform.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.xiaobuding.hotsearchaiplatform.exception.UpstreamNotModifiedException;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.repository.HotSearchRepository;
+import org.xiaobuding.hotsearchaiplatform.service.impl.HotSearchCollectorServiceImpl;
+import org.xiaobuding.hotsearchaiplatform.service.impl.HotSearchServiceImpl;
+import org.xiaobuding.hotsearchaiplatform.service.platform.HotSearchSourceRegistry;
+import org.xiaobuding.hotsearchaiplatform.service.platform.ThirdPartyHotSearchService;
+import org.xiaobuding.hotsearchaiplatform.service.task.PendingClassificationQueue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 热搜采集入库测试：只读采集不能影响入库路径的条件请求
+ */
+public class HotSearchServiceImplTest {
+
+    private FakeUpstream upstream;
+    private HotSearchCollectorService collectorService;
+    private HotSearchCacheService cacheService;
+    private HotSearchRepository repository;
+    private HotSearchPersistenceService persistenceService;
+    private HotSearchServiceImpl hotSearchService;
+
+    @BeforeEach
+    public void setUp() {
+        upstream = new FakeUpstream();
+        collectorService = new HotSearchCollectorServiceImpl(upstream, mock(HotSearchSourceRegistry.class),
+                mock(PlatformHealthService.class), Runnable::run, 1000, 1000);
+        cacheService = mock(HotSearchCacheService.class);
+        repository = mock(HotSearchRepository.class);
+        persistenceService = mock(HotSearchPersistenceService.class);
+        hotSearchService = new HotSearchServiceImpl(collectorService, cacheService, repository,
+                mock(CategoryClassificationService.class), mock(HotSearchUpdateBroadcaster.class),
+                persistenceService, mock(PendingClassificationQueue.class));
+    }
+
+    /**
+     * 测试 AI 分析先采集到新榜单后，入库路径仍能拿到并写入这次更新，而不是得到 304
+     */
+    @Test
+    public void testReadOnlyCollectDoesNotHideUpdateFromPersistence() {
+        upstream.publish("话题A", "话题B");
+        List<HotSearchItem> first = hotSearchService.getHotSearchesByPlatform(PlatformType.WEIBO);
+        assertEquals(2, first.size());
+        verify(persistenceService, times(1)).writeChanges(eq(PlatformType.WEIBO), anyList(), anyList(), anyList(), anyList());
+
+        // 第一次的结果已入库并写入缓存
+        List<HotSearchItem> rows = persisted(first);
+        when(cacheService.getPlatformCached(PlatformType.WEIBO)).thenReturn(rows);
+        when(repository.findByPlatformOrderByRankAsc(PlatformType.WEIBO)).thenReturn(rows);
+
+        upstream.publish("话题A", "话题C");
+        List<HotSearchItem> aiItems = collectorService.collectByPlatform(PlatformType.WEIBO, false);
+        assertEquals("话题C", aiItems.get(1).getTitle());
+
+        List<HotSearchItem> second = hotSearchService.getHotSearchesByPlatform(PlatformType.WEIBO);
+        assertEquals("话题C", second.get(1).getTitle());
+        verify(persistenceService, never()).touch(any(), any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HotSearchItem>> inserted = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<HotSearchItem>> removed = ArgumentCaptor.forClass(List.class);
+        verify(persistenceService, times(2)).writeChanges(eq(PlatformType.WEIBO), inserted.capture(), anyList(),
+                anyList(), removed.capture());
+        assertEquals(List.of("话题C"), titles(inserted.getValue()));
+        assertEquals(List.of("话题B"), titles(removed.getValue()));
+    }
+
+    /**
+     * 测试上游未变化时入库路径只刷新抓取时间
+     */
+    @Test
+    public void testUnchangedUpstreamOnlyTouches() {
+        upstream.publish("话题A", "话题B");
+        List<HotSearchItem> rows = persisted(hotSearchService.getHotSearchesByPlatform(PlatformType.WEIBO));
+        when(repository.findByPlatformOrderByRankAsc(PlatformType.WEIBO)).thenReturn(rows);
+
+        hotSearchService.getHotSearchesByPlatform(PlatformType.WEIBO);
+
+        verify(persistenceService, times(1)).writeChanges(eq(PlatformType.WEIBO), anyList(), anyList(), anyList(), anyList());
+        verify(persistenceService, times(1)).touch(eq(PlatformType.WEIBO), any());
+    }
+
+    private static List<HotSearchItem> persisted(List<HotSearchItem> items) {
+        List<HotSearchItem> rows = new ArrayList<>(items.size());
+        long id = 1;
+        for (HotSearchItem item : items) {
+            HotSearchItem row = item.copy();
+            row.setId(id++);
+            row.setCategory("社会");
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<String> titles(List<HotSearchItem> items) {
+        return items.stream().map(HotSearchItem::getTitle).toList();
+    }
+
+    /**
+     * 按执行器的约定模拟上游：只有条件采集会发送并更新校验器，校验器与当前版本一致时返回 304
+     */
+    private static class FakeUpstream extends ThirdPartyHotSearchService {
+        private List<String> titles = List.of();
+        private int version;
+        private int validatorVersion = -1;
+
+        FakeUpstream() {
+            super(null);
+        }
+
+        void publish(String... titles) {
+            this.titles = List.of(titles);
+            version++;
+        }
+
+        @Override
+        public List<HotSearchItem> fetchHotSearch(PlatformType platform, boolean conditional) {
+            if (conditional) {
+                if (validatorVersion == version) {
+                    throw new UpstreamNotModifiedException("内容未变化", "https://example.com/" + platform);
+                }
+                validatorVersion = version;
+            }
+            List<HotSearchItem> items = new ArrayList<>(titles.size());
+            for (int i = 0; i < titles.size(); i++) {
+                HotSearchItem item = new HotSearchItem(titles.get(i), platform, 1000L - i, i + 1, LocalDateTime.now());
+                item.setCategory("pending");
+                items.add(item);
+            }
+            return items;
+        }
+    }
+}
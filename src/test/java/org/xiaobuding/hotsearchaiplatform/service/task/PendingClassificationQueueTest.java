@@ -0,0 +1,122 @@
+package org.xiaobuding.hotsearchaiplatform.service.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xiaobuding.hotsearchaiplatform.config.ThreadingMode;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+import org.xiaobuding.hotsearchaiplatform.repository.HotSearchRepository;
+import org.xiaobuding.hotsearchaiplatform.service.CategoryClassificationService;
+import org.xiaobuding.hotsearchaiplatform.service.HotSearchCacheService;
+import org.xiaobuding.hotsearchaiplatform.service.HotSearchUpdateBroadcaster;
+import org.xiaobuding.hotsearchaiplatform.service.impl.CategoryClassificationServiceImpl;
+import org.xiaobuding.hotsearchaiplatform.service.impl.LlmCategoryClassifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 待分类队列测试：大模型拿不到结果时，重试有限次后写入关键词分类
+ */
+public class PendingClassificationQueueTest {
+    private static final String TITLE = "今天的一件小事";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private HotSearchRepository repository;
+    private PendingClassificationQueue queue;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(HotSearchRepository.class);
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> List.of(pendingRow()));
+        when(repository.updateCategoryIfUnclassified(anyLong(), anyString())).thenReturn(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    /**
+     * 测试大模型每次都返回空结果：尝试 max-llm-attempts 次后写入关键词推断的分类
+     */
+    @Test
+    public void testEmptyLlmResultFallsBackToKeywords() {
+        LlmCategoryClassifier llmClassifier = mock(LlmCategoryClassifier.class);
+        when(llmClassifier.isAvailable()).thenReturn(true);
+        when(llmClassifier.maxBatchSize()).thenReturn(50);
+        CategoryClassificationService classificationService =
+                new CategoryClassificationServiceImpl(llmClassifier, 100, 1 << 20, 1.6);
+        String expected = classificationService.classifyTitleByKeywords(TITLE);
+
+        queue = startQueue(classificationService);
+        queue.submit(List.of(pendingRow()));
+
+        verify(repository, timeout(5000)).updateCategoryIfUnclassified(1L, expected);
+        verify(llmClassifier, times(MAX_ATTEMPTS)).classify(anyList());
+        verify(repository, times(1)).updateCategoryIfUnclassified(anyLong(), anyString());
+    }
+
+    /**
+     * 测试分类调用抛出异常：同样计为尝试，用尽后写入关键词分类，不会丢失条目
+     */
+    @Test
+    public void testFailingClassifierFallsBackToKeywords() {
+        CategoryClassificationService classificationService = mock(CategoryClassificationService.class);
+        when(classificationService.classifyItems(anyList())).thenThrow(new IllegalStateException("DashScope 不可用"));
+        when(classificationService.classifyTitleByKeywords(TITLE)).thenReturn("society");
+
+        queue = startQueue(classificationService);
+        queue.submit(List.of(pendingRow()));
+
+        verify(repository, timeout(5000)).updateCategoryIfUnclassified(1L, "society");
+        verify(classificationService, times(MAX_ATTEMPTS)).classifyItems(anyList());
+        assertEquals(0, queue.stats().pending());
+    }
+
+    /**
+     * 测试大模型给出结果时直接写回，不使用兜底
+     */
+    @Test
+    public void testLlmResultIsWritten() {
+        CategoryClassificationService classificationService = mock(CategoryClassificationService.class);
+        when(classificationService.classifyItems(anyList())).thenAnswer(invocation -> {
+            List<HotSearchItem> items = invocation.getArgument(0);
+            items.forEach(item -> item.setCategory("culture"));
+            return items;
+        });
+
+        queue = startQueue(classificationService);
+        queue.submit(List.of(pendingRow()));
+
+        verify(repository, timeout(5000)).updateCategoryIfUnclassified(1L, "culture");
+        verify(classificationService, times(1)).classifyItems(anyList());
+        verify(classificationService, never()).classifyTitleByKeywords(any());
+    }
+
+    private PendingClassificationQueue startQueue(CategoryClassificationService classificationService) {
+        PendingClassificationQueue started = new PendingClassificationQueue(repository, classificationService,
+                mock(HotSearchCacheService.class), mock(HotSearchUpdateBroadcaster.class), new ThreadingMode(false),
+                100, 10, 0, MAX_ATTEMPTS);
+        started.start();
+        return started;
+    }
+
+    private static HotSearchItem pendingRow() {
+        HotSearchItem item = new HotSearchItem(TITLE, PlatformType.WEIBO, 1000L, 1, LocalDateTime.now());
+        item.setId(1L);
+        item.setCategory("pending");
+        return item;
+    }
+}
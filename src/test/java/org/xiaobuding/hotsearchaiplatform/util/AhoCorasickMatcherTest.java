@@ -0,0 +1,97 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aho-Corasick 多模式匹配测试
+ */
+public class AhoCorasickMatcherTest {
+
+    /**
+     * 测试重叠模式和后缀模式都能被报告
+     */
+    @Test
+    public void testOverlappingPatterns() {
+        AhoCorasickMatcher.Builder builder = AhoCorasickMatcher.builder();
+        int he = builder.add("he");
+        int she = builder.add("she");
+        int his = builder.add("his");
+        int hers = builder.add("hers");
+        AhoCorasickMatcher matcher = builder.build();
+
+        List<Integer> matches = new ArrayList<>();
+        matcher.match("ushers", matches::add);
+
+        assertEquals(List.of(she, he, hers), matches);
+        assertFalse(matches.contains(his));
+    }
+
+    /**
+     * 测试中文关键词匹配，重复添加返回同一编号
+     */
+    @Test
+    public void testChineseKeywords() {
+        AhoCorasickMatcher.Builder builder = AhoCorasickMatcher.builder();
+        int military = builder.add("军事");
+        int exercise = builder.add("军事演习");
+        int drill = builder.add("演习");
+        assertEquals(military, builder.add("军事"));
+        AhoCorasickMatcher matcher = builder.build();
+
+        TreeSet<Integer> matches = new TreeSet<>();
+        matcher.match("多国举行联合军事演习", matches::add);
+
+        assertEquals(new TreeSet<>(List.of(military, exercise, drill)), matches);
+        assertTrue(matcher.containsAny("航母编队演习"));
+        assertFalse(matcher.containsAny("军舰"));
+        assertFalse(matcher.containsAny(""));
+    }
+
+    /**
+     * 随机文本上与逐个 contains 的结果一致
+     */
+    @Test
+    public void testAgreesWithContains() {
+        String alphabet = "abc军事演";
+        Random random = new Random(42);
+        AhoCorasickMatcher.Builder builder = AhoCorasickMatcher.builder();
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String pattern = randomText(random, alphabet, 1 + random.nextInt(4));
+            if (builder.add(pattern) == patterns.size()) {
+                patterns.add(pattern);
+            }
+        }
+        AhoCorasickMatcher matcher = builder.build();
+
+        for (int i = 0; i < 500; i++) {
+            String text = randomText(random, alphabet, random.nextInt(20));
+            TreeSet<Integer> matched = new TreeSet<>();
+            matcher.match(text, matched::add);
+
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int id = 0; id < patterns.size(); id++) {
+                if (text.contains(patterns.get(id))) {
+                    expected.add(id);
+                }
+            }
+            assertEquals(expected, matched, text);
+            assertEquals(!expected.isEmpty(), matcher.containsAny(text), text);
+        }
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 有界 LRU 缓存测试
+ */
+public class BoundedLruCacheTest {
+
+    /**
+     * 测试超过条目数上限时淘汰最久未访问的条目，读取会刷新访问顺序
+     */
+    @Test
+    public void testEvictsLeastRecentlyUsedByCount() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(2, Long.MAX_VALUE, (key, value) -> 1);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+        BoundedLruCache.Stats stats = cache.stats();
+        assertEquals(2, stats.entries());
+        assertEquals(1, stats.evictions());
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.75, stats.hitRate(), 1e-9);
+    }
+
+    /**
+     * 测试字节数按写入、覆盖和淘汰准确累计，超过字节上限时淘汰直到回到上限内
+     */
+    @Test
+    public void testTracksEstimatedBytes() {
+        BoundedLruCache<String, String> cache = new BoundedLruCache<>(100, 10, (key, value) -> value.length());
+        cache.put("a", "1234");
+        cache.put("b", "123");
+        assertEquals(7, cache.stats().estimatedBytes());
+
+        // 覆盖时先扣除旧值
+        cache.put("a", "12");
+        assertEquals(5, cache.stats().estimatedBytes());
+
+        // 超过 10 字节：淘汰最旧的 b(3)，再淘汰 a(2)
+        cache.put("c", "123456789");
+        assertNull(cache.get("b"));
+        assertNull(cache.get("a"));
+        assertEquals("123456789", cache.get("c"));
+        assertEquals(9, cache.stats().estimatedBytes());
+        assertEquals(2, cache.stats().evictions());
+
+        // 单个条目超过上限时自身也会被淘汰
+        cache.put("d", "12345678901");
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().estimatedBytes());
+
+        cache.put("e", "123");
+        cache.clear();
+        assertEquals(0, cache.stats().estimatedBytes());
+        assertNull(cache.get("e"));
+    }
+
+    /**
+     * 测试字符串条目的字节估算和非法上限
+     */
+    @Test
+    public void testStringEstimateAndInvalidLimits() {
+        assertEquals(96 + 2 * 2 + 2 * 3, BoundedLruCache.estimateStringEntry("ab", "cde"));
+        assertEquals(96 + 2 * 2, BoundedLruCache.estimateStringEntry("ab", null));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedLruCache<String, String>(0, 1, (key, value) -> 1));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedLruCache<String, String>(1, 0, (key, value) -> 1));
+    }
+}
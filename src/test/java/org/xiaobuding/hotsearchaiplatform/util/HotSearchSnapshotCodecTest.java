@@ -0,0 +1,89 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import org.junit.jupiter.api.Test;
+import org.xiaobuding.hotsearchaiplatform.model.HotSearchItem;
+import org.xiaobuding.hotsearchaiplatform.model.PlatformType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 热搜快照二进制编码测试
+ */
+public class HotSearchSnapshotCodecTest {
+
+    /**
+     * 测试各字段（含 null、负数、代理对字符）编码后能原样还原，抓取时间保留到秒
+     */
+    @Test
+    public void testRoundTrip() {
+        List<HotSearchItem> items = sampleList(50);
+        HotSearchItem odd = items.get(6);
+        odd.setId(null);
+        odd.setHeat(-5L);
+        odd.setCapturedAt(null);
+        odd.setUrl(null);
+        odd.setCategory(null);
+        odd.setDegradedReason("timeout");
+        odd.setActualSource("backup");
+
+        List<HotSearchItem> decoded = HotSearchSnapshotCodec.decode(HotSearchSnapshotCodec.encode(items));
+
+        assertEquals(items.size(), decoded.size());
+        for (int i = 0; i < items.size(); i++) {
+            HotSearchItem expected = items.get(i);
+            HotSearchItem actual = decoded.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getPlatform(), actual.getPlatform());
+            assertEquals(expected.getHeat(), actual.getHeat());
+            assertEquals(expected.getRank(), actual.getRank());
+            assertEquals(expected.getCapturedAt() == null ? null : expected.getCapturedAt().withNano(0), actual.getCapturedAt());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getActualSource(), actual.getActualSource());
+            assertEquals(expected.getDegradedReason(), actual.getDegradedReason());
+            assertEquals(expected.getUrl(), actual.getUrl());
+        }
+    }
+
+    /**
+     * 测试空列表和小列表（不压缩）
+     */
+    @Test
+    public void testSmallLists() {
+        assertTrue(HotSearchSnapshotCodec.decode(HotSearchSnapshotCodec.encode(List.of())).isEmpty());
+        List<HotSearchItem> one = sampleList(1);
+        assertEquals("热搜话题😀1", HotSearchSnapshotCodec.decode(HotSearchSnapshotCodec.encode(one)).get(0).getTitle());
+    }
+
+    /**
+     * 测试旧版本写入的 JSON 和截断的数据被拒绝
+     */
+    @Test
+    public void testRejectsForeignAndCorruptData() {
+        byte[] json = "[\"java.util.ArrayList\",[]]".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> HotSearchSnapshotCodec.decode(json));
+
+        byte[] encoded = HotSearchSnapshotCodec.encode(sampleList(50));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 5);
+        assertThrows(IllegalArgumentException.class, () -> HotSearchSnapshotCodec.decode(truncated));
+    }
+
+    private static List<HotSearchItem> sampleList(int size) {
+        LocalDateTime capturedAt = LocalDateTime.of(2024, 5, 1, 12, 30, 5, 123_000_000);
+        List<HotSearchItem> items = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            HotSearchItem item = new HotSearchItem("热搜话题😀" + i, PlatformType.WEIBO, 1_000_000L - i * 313, i, capturedAt);
+            item.setId(5000L + i);
+            item.setCategory(i % 3 == 0 ? "科技" : "娱乐");
+            item.setUrl("https://s.weibo.com/weibo?q=%23" + i);
+            items.add(item);
+        }
+        return items;
+    }
+}
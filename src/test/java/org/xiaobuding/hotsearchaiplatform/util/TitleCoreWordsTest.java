@@ -0,0 +1,60 @@
+package org.xiaobuding.hotsearchaiplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 标题核心词提取测试
+ */
+public class TitleCoreWordsTest {
+
+    /**
+     * 测试去除数字、空白和 ASCII 标点，全角标点和中文保留
+     */
+    @Test
+    public void testStripsDigitsWhitespaceAndAsciiPunctuation() {
+        assertEquals("国足热身赛胜对手", TitleCoreWords.extract("国足 3:1 热身赛胜对手!"));
+        assertEquals("双十一销量破亿！", TitleCoreWords.extract("#双十一# 销量破 10 亿！"));
+        assertEquals("", TitleCoreWords.extract("2024 - 12\t31\n"));
+        assertEquals("", TitleCoreWords.extract(""));
+    }
+
+    /**
+     * 测试最多保留 20 个字符，无需处理的标题直接返回原字符串
+     */
+    @Test
+    public void testTruncatesAndReusesUnchangedTitle() {
+        String plain = "热搜话题";
+        assertSame(plain, TitleCoreWords.extract(plain));
+
+        String longTitle = "一二三四五六七八九十一二三四五六七八九十超出部分";
+        assertEquals(longTitle.substring(0, TitleCoreWords.MAX_LENGTH), TitleCoreWords.extract(longTitle));
+        assertEquals("一二三四五六七八九十一二三四五六七八九十",
+                TitleCoreWords.extract("1一二三四五六七八九十 一二三四五六七八九十超出部分"));
+    }
+
+    /**
+     * 随机文本上与原来的 replaceAll 后截断结果一致
+     */
+    @Test
+    public void testAgreesWithReplaceAll() {
+        String alphabet = "热搜a Z09\t\n\u000B\f\r!/:@[`{~#，。！（）_　";
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder title = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                title.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = title.toString();
+            String expected = text.replaceAll("[0-9\\s\\p{Punct}]", "");
+            if (expected.length() > TitleCoreWords.MAX_LENGTH) {
+                expected = expected.substring(0, TitleCoreWords.MAX_LENGTH);
+            }
+            assertEquals(expected, TitleCoreWords.extract(text), text);
+        }
+    }
+}